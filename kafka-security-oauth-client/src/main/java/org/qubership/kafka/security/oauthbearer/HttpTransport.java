@@ -0,0 +1,76 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * HTTP transport for calls to Identity Provider and Vault which return JSON objects: OpenID
+ * discovery, token, introspection and login endpoints.
+ *
+ * <p>The default implementation is based on JDK {@code java.net.http.HttpClient}, Jersey client
+ * is available as fallback with {@code httpTransport=jersey} option.</p>
+ */
+@ThreadSafe
+interface HttpTransport extends Closeable {
+
+  String JDK = "jdk";
+  String JERSEY = "jersey";
+
+  /**
+   * Sends request asynchronously.
+   *
+   * @param request request to send
+   * @return future of response JSON object, it fails with {@link IOException} if response status
+   *         is not successful or response body is not JSON object
+   */
+  @Nonnull
+  CompletableFuture<Map<String, Object>> sendAsync(@Nonnull TransportRequest request);
+
+  /**
+   * Sends request and waits for response.
+   *
+   * @param request request to send
+   * @return response JSON object
+   * @throws IOException if request fails, response status is not successful or response body is
+   *                     not JSON object
+   */
+  @Nonnull
+  default Map<String, Object> send(@Nonnull TransportRequest request) throws IOException {
+    try {
+      return sendAsync(request).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Request to " + request.url() + " is interrupted");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException("Request to " + request.url() + " failed", e.getCause());
+    }
+  }
+
+  @Override
+  void close();
+}
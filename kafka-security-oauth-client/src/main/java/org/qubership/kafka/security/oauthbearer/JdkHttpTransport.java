@@ -0,0 +1,141 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+import net.minidev.json.parser.JSONParser;
+import net.minidev.json.parser.ParseException;
+
+/**
+ * {@link HttpTransport} based on JDK {@link HttpClient}. One client is shared by all requests, so
+ * connections are reused, HTTP/2 is used when server supports it.
+ *
+ * <p>Synchronous responses are parsed directly from response stream without copying body to
+ * string.</p>
+ */
+@ThreadSafe
+final class JdkHttpTransport implements HttpTransport {
+
+  private static final String ACCEPT = "Accept";
+  private static final String CONTENT_TYPE = "Content-Type";
+
+  @Nonnull
+  private final HttpClient client;
+
+  /**
+   * Creates transport.
+   *
+   * @param connectionTimeout connection timeout in milliseconds, {@code 0} means no timeout
+   */
+  JdkHttpTransport(int connectionTimeout) {
+    HttpClient.Builder builder = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_2)
+        .followRedirects(HttpClient.Redirect.NORMAL);
+    if (connectionTimeout > 0) {
+      builder.connectTimeout(Duration.ofMillis(connectionTimeout));
+    }
+    this.client = builder.build();
+  }
+
+  @Nonnull
+  @Override
+  public Map<String, Object> send(@Nonnull TransportRequest request) throws IOException {
+    HttpResponse<InputStream> response;
+    try {
+      response = client.send(toHttpRequest(request), HttpResponse.BodyHandlers.ofInputStream());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Request to " + request.url() + " is interrupted");
+    }
+    try (InputStream body = response.body()) {
+      checkStatus(request, response.statusCode());
+      return toJsonObject(request, new JSONParser(JSONParser.DEFAULT_PERMISSIVE_MODE).parse(body));
+    } catch (ParseException e) {
+      throw new IOException("Response from " + request.url() + " is not valid JSON", e);
+    }
+  }
+
+  @Nonnull
+  @Override
+  public CompletableFuture<Map<String, Object>> sendAsync(@Nonnull TransportRequest request) {
+    return client.sendAsync(toHttpRequest(request), HttpResponse.BodyHandlers.ofByteArray())
+        .thenApply(response -> {
+          try {
+            checkStatus(request, response.statusCode());
+            return toJsonObject(request,
+                new JSONParser(JSONParser.DEFAULT_PERMISSIVE_MODE).parse(response.body()));
+          } catch (ParseException e) {
+            throw new CompletionException(
+                new IOException("Response from " + request.url() + " is not valid JSON", e));
+          } catch (IOException e) {
+            throw new CompletionException(e);
+          }
+        });
+  }
+
+  @Nonnull
+  private static HttpRequest toHttpRequest(@Nonnull TransportRequest request) {
+    HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(request.url()))
+        .header(ACCEPT, TransportRequest.JSON_CONTENT_TYPE);
+    if (request.timeout() > 0) {
+      builder.timeout(Duration.ofMillis(request.timeout()));
+    }
+    request.headers().forEach(builder::header);
+    if (request.body() != null) {
+      builder.header(CONTENT_TYPE, request.contentType());
+      builder.method(request.method(), HttpRequest.BodyPublishers.ofString(request.body()));
+    } else {
+      builder.method(request.method(), HttpRequest.BodyPublishers.noBody());
+    }
+    return builder.build();
+  }
+
+  private static void checkStatus(@Nonnull TransportRequest request, int status)
+      throws IOException {
+    if (status < 200 || status >= 300) {
+      throw new IOException(
+          String.format("Request to %s failed with HTTP status %d", request.url(), status));
+    }
+  }
+
+  @Nonnull
+  @SuppressWarnings("unchecked")
+  static Map<String, Object> toJsonObject(@Nonnull TransportRequest request, Object json)
+      throws IOException {
+    if (!(json instanceof Map)) {
+      throw new IOException("Response from " + request.url() + " is not JSON object");
+    }
+    return (Map<String, Object>) json;
+  }
+
+  @Override
+  public void close() {
+    client.shutdownNow();
+  }
+}
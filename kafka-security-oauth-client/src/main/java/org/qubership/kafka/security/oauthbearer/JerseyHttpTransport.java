@@ -0,0 +1,98 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.core.MediaType;
+import org.glassfish.jersey.client.ClientProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link HttpTransport} based on Jersey client, which is kept as fallback for
+ * {@link JdkHttpTransport}.
+ */
+@ThreadSafe
+final class JerseyHttpTransport implements HttpTransport {
+  private static final Logger LOGGER = LoggerFactory.getLogger(JerseyHttpTransport.class);
+
+  @Nonnull
+  private final Client client;
+  private final int connectionTimeout;
+
+  /**
+   * Creates transport.
+   *
+   * @param connectionTimeout connection timeout in milliseconds, {@code 0} means no timeout
+   */
+  JerseyHttpTransport(int connectionTimeout) {
+    this.client = OAuthLoginUtils.createClient(LOGGER);
+    this.connectionTimeout = connectionTimeout;
+  }
+
+  @Nonnull
+  @Override
+  public Map<String, Object> send(@Nonnull TransportRequest request) throws IOException {
+    try {
+      return JdkHttpTransport.toJsonObject(request,
+          invocation(request).method(request.method(), entity(request), Map.class));
+    } catch (RuntimeException e) {
+      throw new IOException("Request to " + request.url() + " failed", e);
+    }
+  }
+
+  @Nonnull
+  @Override
+  public CompletableFuture<Map<String, Object>> sendAsync(@Nonnull TransportRequest request) {
+    return CompletableFuture.supplyAsync(() -> {
+      try {
+        return send(request);
+      } catch (IOException e) {
+        throw new CompletionException(e);
+      }
+    });
+  }
+
+  @Nonnull
+  private Invocation.Builder invocation(@Nonnull TransportRequest request) {
+    Invocation.Builder invocation = client.target(request.url())
+        .property(ClientProperties.CONNECT_TIMEOUT, connectionTimeout)
+        .property(ClientProperties.READ_TIMEOUT, request.timeout())
+        .request(MediaType.APPLICATION_JSON_TYPE);
+    for (Map.Entry<String, String> header : request.headers().entrySet()) {
+      invocation = invocation.header(header.getKey(), header.getValue());
+    }
+    return invocation;
+  }
+
+  private static Entity<String> entity(@Nonnull TransportRequest request) {
+    return request.body() == null ? null : Entity.entity(request.body(), request.contentType());
+  }
+
+  @Override
+  public void close() {
+    client.close();
+  }
+}
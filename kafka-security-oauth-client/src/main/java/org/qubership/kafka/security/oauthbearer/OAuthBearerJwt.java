@@ -18,42 +18,30 @@ package org.qubership.kafka.security.oauthbearer;
 
 import static java.util.Objects.requireNonNull;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.TextNode;
 import com.nimbusds.jose.JWSAlgorithm;
-import com.nimbusds.jose.JWSHeader;
-import com.nimbusds.jose.JWSObject;
-import java.io.IOException;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
 import java.text.ParseException;
-import java.time.Instant;
-import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import net.minidev.json.JSONObject;
-import org.apache.kafka.common.security.oauthbearer.OAuthBearerToken;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 /**
  * A simple JWT implementation.
  *
+ * <p>Token is parsed only once: the same {@link SignedJWT} and its claims are used to extract
+ * principal, scope and roles and to verify the signature.</p>
+ *
  * @see <a href="https://tools.ietf.org/html/rfc7519">RFC 7519</a>
  */
-public final class OAuthBearerJwt implements OAuthBearerToken {
+public final class OAuthBearerJwt implements OAuthBearerRolesToken {
 
-  private static final Logger LOGGER = LoggerFactory.getLogger(OAuthBearerJwt.class);
   public static final String POINT = ".";
   public static final String SPACE = " ";
-  public static final String SLASH = "/";
-
-  private static final ObjectMapper OM = new ObjectMapper();
 
   @Nonnull
   private final String value;
@@ -65,31 +53,25 @@ public final class OAuthBearerJwt implements OAuthBearerToken {
   @Nullable
   private final Long startTimeMs;
   @Nonnull
-  private final JWSHeader header;
+  private final SignedJWT signedJwt;
   @Nonnull
-  private final JSONObject payload;
+  private final JWTClaimsSet claims;
   @Nonnull
   private final Set<String> roles;
 
   public OAuthBearerJwt(@Nonnull String token) {
-    this(token, "");
+    this(token, TokenRolesExtractor.EMPTY);
   }
 
-  OAuthBearerJwt(@Nonnull String token, @Nonnull String tokenRolesPath) {
+  OAuthBearerJwt(@Nonnull String token, @Nonnull TokenRolesExtractor rolesExtractor) {
     value = requireNonNull(token);
-    final JWSObject jwsToken;
     try {
-      jwsToken = JWSObject.parse(value);
+      signedJwt = SignedJWT.parse(value);
+      claims = signedJwt.getJWTClaimsSet();
     } catch (ParseException e) {
       throw new IllegalArgumentException("Token does not have JWT-token structure", e);
     }
-    header = jwsToken.getHeader();
-    Map<String, Object> initialPayload = jwsToken.getPayload().toJSONObject();
-    if (initialPayload == null) {
-      throw new IllegalArgumentException("JWT Token does not have payload.");
-    }
-    payload = new JSONObject(initialPayload);
-    Object scope = payload.get("scope");
+    Object scope = claims.getClaim("scope");
     if (scope instanceof List) {
       Set<String> scopes = new HashSet<>();
       for (Object item : (List) scope) {
@@ -99,12 +81,15 @@ public final class OAuthBearerJwt implements OAuthBearerToken {
     } else {
       this.scope = (scope == null) ? Collections.emptySet() : Collections.singleton((String) scope);
     }
-    roles = calculateRoles(tokenRolesPath);
-    lifetimeMs = Instant.ofEpochSecond(payload.getAsNumber("exp").longValue()).toEpochMilli();
-    principalName = payload.getAsString("sub");
-    Number startTimeMs = payload.getAsNumber("iat");
-    this.startTimeMs = (startTimeMs == null)
-        ? null : Instant.ofEpochSecond(startTimeMs.longValue()).toEpochMilli();
+    roles = rolesExtractor.extract(claims.getClaims());
+    Date expirationTime = claims.getExpirationTime();
+    if (expirationTime == null) {
+      throw new IllegalArgumentException("JWT Token does not have expiration time.");
+    }
+    lifetimeMs = expirationTime.getTime();
+    principalName = claims.getSubject();
+    Date issueTime = claims.getIssueTime();
+    this.startTimeMs = (issueTime == null) ? null : issueTime.getTime();
   }
 
   @Override
@@ -132,11 +117,7 @@ public final class OAuthBearerJwt implements OAuthBearerToken {
     return startTimeMs;
   }
 
-  /**
-   * Returns the list of roles for current principal.
-   *
-   * @return set of roles
-   */
+  @Override
   public Set<String> roles() {
     return roles;
   }
@@ -148,7 +129,27 @@ public final class OAuthBearerJwt implements OAuthBearerToken {
    */
   @Nonnull
   JWSAlgorithm algorithm() {
-    return header.getAlgorithm();
+    return signedJwt.getHeader().getAlgorithm();
+  }
+
+  /**
+   * Returns time before which the token must not be accepted.
+   *
+   * @return not before time or {@code null} if token does not have {@code nbf} claim
+   */
+  @Nullable
+  Date notBeforeTime() {
+    return claims.getNotBeforeTime();
+  }
+
+  /**
+   * Returns unique identifier of the token.
+   *
+   * @return token ID or {@code null} if token does not have {@code jti} claim
+   */
+  @Nullable
+  String jwtId() {
+    return claims.getJWTID();
   }
 
   /**
@@ -158,33 +159,26 @@ public final class OAuthBearerJwt implements OAuthBearerToken {
    */
   @Nonnull
   String issuer() {
-    return payload.getAsString("iss");
+    return claims.getIssuer();
   }
 
-  private Set<String> calculateRoles(String tokenRolesPath) {
-    JsonNode roles = getNodeByPath(tokenRolesPath);
-    if (roles instanceof ArrayNode) {
-      Set<String> elements = new HashSet<>();
-      for (int i = 0; i < roles.size(); ++i) {
-        elements.add(roles.get(i).textValue());
-      }
-      return Collections.unmodifiableSet(elements);
-    } else if (roles instanceof TextNode) {
-      String[] rolesAsArray = roles.textValue().split(SPACE);
-      Set<String> elements = new HashSet<>(Arrays.asList(rolesAsArray));
-      return Collections.unmodifiableSet(elements);
-    } else {
-      return Collections.emptySet();
-    }
+  /**
+   * Returns claims of the token.
+   *
+   * @return parsed claims
+   */
+  @Nonnull
+  JWTClaimsSet claims() {
+    return claims;
   }
 
-  private JsonNode getNodeByPath(String path) {
-    try {
-      JsonNode node = OM.readTree(payload.toJSONString());
-      return node.at(SLASH + path.replace(POINT, SLASH));
-    } catch (IOException e) {
-      LOGGER.error("Cannot read tree from JSON", e);
-      return null;
-    }
+  /**
+   * Returns parsed token which is used for signature verification.
+   *
+   * @return signed JWT
+   */
+  @Nonnull
+  SignedJWT signedJwt() {
+    return signedJwt;
   }
 }
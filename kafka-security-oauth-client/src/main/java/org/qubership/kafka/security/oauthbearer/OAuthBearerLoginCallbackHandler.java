@@ -31,6 +31,7 @@ public class OAuthBearerLoginCallbackHandler extends AbstractOAuthBearerCallback
           LoggerFactory.getLogger(OAuthBearerLoginCallbackHandler.class);
 
   private final TokenRetriever retriever;
+  private SuccessLogger successLogger;
 
   public OAuthBearerLoginCallbackHandler() {
     this(new OAuthTokenRetriever());
@@ -67,17 +68,22 @@ public class OAuthBearerLoginCallbackHandler extends AbstractOAuthBearerCallback
               String.format("Access token not retrieved from: %s", retriever.getIdpEndpoint()));
     }
     OAuthBearerJwt jwt = new OAuthBearerJwt(accessToken);
-    LOGGER.info("Retrieved token with principal: {}", jwt.principalName());
+    successLogger.log(jwt.principalName());
     return jwt;
   }
 
   @Override
   void configureOptions(@Nonnull Map<String, String> options) {
     retriever.configure(options);
+    successLogger = SuccessLogger.create(LOGGER, "Retrieved token with principal: {}",
+        "Retrieved tokens by principal in the last {} ms: {}", options);
   }
 
   @Override
   public void close() {
+    if (successLogger != null) {
+      successLogger.flush();
+    }
     retriever.close();
   }
 }
\ No newline at end of file
@@ -21,6 +21,7 @@ import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
+import java.util.Map;
 import javax.annotation.Nonnull;
 import javax.net.ssl.SSLContext;
 import javax.ws.rs.client.Client;
@@ -31,6 +32,8 @@ import org.slf4j.Logger;
 
 public class OAuthLoginUtils {
 
+  static final String HTTP_TRANSPORT_OPTION = "httpTransport";
+
   public static String clientCredentials(String clientId, String clientSecret) {
     String credentials = clientId + ":" + clientSecret;
     return new String(Base64.getEncoder().encode(credentials.getBytes(StandardCharsets.UTF_8)));
@@ -50,6 +53,27 @@ public class OAuthLoginUtils {
     return new URI(url).normalize().toString();
   }
 
+  /**
+   * Creates HTTP transport which is selected by {@code httpTransport} option: {@code jdk}, which
+   * is default, or {@code jersey}.
+   *
+   * @param options JAAS options
+   * @param connectionTimeout connection timeout in milliseconds, {@code 0} means no timeout
+   * @return HTTP transport
+   */
+  @Nonnull
+  static HttpTransport createTransport(@Nonnull Map<String, String> options,
+      int connectionTimeout) {
+    String transport = options.get(HTTP_TRANSPORT_OPTION);
+    if (transport == null || transport.isEmpty() || HttpTransport.JDK.equalsIgnoreCase(transport)) {
+      return new JdkHttpTransport(connectionTimeout);
+    }
+    if (HttpTransport.JERSEY.equalsIgnoreCase(transport)) {
+      return new JerseyHttpTransport(connectionTimeout);
+    }
+    throw new IllegalArgumentException("Unknown HTTP transport: " + transport);
+  }
+
   static Client createClient(org.slf4j.Logger log) {
     ClassLoader prev = Thread.currentThread().getContextClassLoader();
     ClassLoader jerseyCl = JerseyClientBuilder.class.getClassLoader();
@@ -18,19 +18,16 @@ package org.qubership.kafka.security.oauthbearer;
 
 import static java.util.Objects.requireNonNull;
 import static org.qubership.kafka.security.oauthbearer.OAuthLoginUtils.clientCredentials;
-import static org.qubership.kafka.security.oauthbearer.OAuthLoginUtils.createClient;
+import static org.qubership.kafka.security.oauthbearer.OAuthLoginUtils.createTransport;
 import static org.qubership.kafka.security.oauthbearer.OAuthLoginUtils.normalizeUrl;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URISyntaxException;
+import java.util.Collections;
 import java.util.Map;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import javax.ws.rs.client.Client;
-import javax.ws.rs.client.Entity;
-import javax.ws.rs.client.Invocation;
-import javax.ws.rs.client.WebTarget;
-import javax.ws.rs.core.Form;
-import javax.ws.rs.core.MediaType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,7 +39,7 @@ public class OAuthTokenRetriever implements TokenRetriever {
   private static final String CLIENT_SECRET_OPTION = "clientSecret";
   private static final String TOKEN_ENDPOINT_OPTION = "tokenEndpoint";
 
-  private Client client;
+  private HttpTransport transport;
   private String tokenEndpoint;
   private String clientId;
   private String clientSecret;
@@ -52,7 +49,7 @@ public class OAuthTokenRetriever implements TokenRetriever {
 
   @Override
   public void configure(Map<String, String> options) {
-    client = createClient(LOGGER);
+    transport = createTransport(options, 0);
     tokenEndpoint = getTokenEndpoint(options);
     clientId = options.get(CLIENT_ID_OPTION);
     clientSecret = options.get(CLIENT_SECRET_OPTION);
@@ -83,19 +80,20 @@ public class OAuthTokenRetriever implements TokenRetriever {
 
   @Override
   public String retrieveAccessToken() {
-    WebTarget webTarget = client.target(tokenEndpoint);
-    Form form = new Form();
-    form.param("grant_type", "client_credentials");
-    Invocation.Builder invocationBuilder = webTarget.request(MediaType.APPLICATION_JSON_TYPE);
-    invocationBuilder.header("Authorization", "Basic " + clientCredentials(clientId, clientSecret));
-    Entity<?> entity = Entity.entity(form, MediaType.APPLICATION_FORM_URLENCODED);
-    @SuppressWarnings("unchecked")
-    Map<String, String> response = invocationBuilder.post(entity, Map.class);
+    TransportRequest request = TransportRequest.postForm(tokenEndpoint,
+            Collections.singletonMap("grant_type", "client_credentials"))
+        .header("Authorization", "Basic " + clientCredentials(clientId, clientSecret));
+    Map<String, Object> response;
+    try {
+      response = transport.send(request);
+    } catch (IOException e) {
+      throw new UncheckedIOException(
+          String.format("Token cannot be obtained from: %s", tokenEndpoint), e);
+    }
     requireNonNull(response,
         () -> String.format(
                 "Token endpoint cannot be obtained: invalid response from: %s", tokenEndpoint));
-    String res = response.get("access_token");
-    return res;
+    return (String) response.get("access_token");
   }
 
   public String getIdpEndpoint() {
@@ -104,8 +102,8 @@ public class OAuthTokenRetriever implements TokenRetriever {
 
   @Override
   public void close() {
-    if (client != null) {
-      client.close();
+    if (transport != null) {
+      transport.close();
     }
   }
 }
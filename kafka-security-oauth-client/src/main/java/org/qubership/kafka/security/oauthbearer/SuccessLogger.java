@@ -0,0 +1,175 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import org.slf4j.Logger;
+
+/**
+ * Logs successfully obtained or validated tokens at INFO level in accordance with configured mode:
+ * <ul>
+ *   <li>{@code all} - every token is logged, it is the default mode;</li>
+ *   <li>{@code off} - tokens are not logged;</li>
+ *   <li>{@code sample:N} - one of every N tokens is logged;</li>
+ *   <li>{@code summary} - number of tokens of every principal is logged once per summary
+ *   interval.</li>
+ * </ul>
+ * Summary is logged by the first thread which logs token after the end of interval, so no
+ * background thread is required.
+ */
+@ThreadSafe
+final class SuccessLogger {
+
+  static final String MODE_OPTION = "successLogMode";
+  static final String SUMMARY_INTERVAL_OPTION = "successLogSummaryInterval";
+
+  private static final String ALL_MODE = "all";
+  private static final String OFF_MODE = "off";
+  private static final String SAMPLE_MODE_PREFIX = "sample:";
+  private static final String SUMMARY_MODE = "summary";
+  private static final long DEFAULT_SUMMARY_INTERVAL = 60000;
+  private static final int MAX_SUMMARY_PRINCIPALS = 10000;
+  private static final String OTHER_PRINCIPALS = "<other>";
+
+  @Nonnull
+  private final Logger logger;
+  @Nonnull
+  private final String message;
+  @Nonnull
+  private final String summaryMessage;
+  @Nonnull
+  private final String mode;
+  private final long sampleRate;
+  private final long summaryInterval;
+  @Nonnull
+  private final AtomicLong counter = new AtomicLong();
+  @Nonnull
+  private final ConcurrentMap<String, LongAdder> principalCounts = new ConcurrentHashMap<>();
+  @Nonnull
+  private final AtomicLong summaryStart;
+
+  private SuccessLogger(@Nonnull Logger logger, @Nonnull String message,
+      @Nonnull String summaryMessage, @Nonnull String mode, long sampleRate,
+      long summaryInterval) {
+    this.logger = logger;
+    this.message = message;
+    this.summaryMessage = summaryMessage;
+    this.mode = mode;
+    this.sampleRate = sampleRate;
+    this.summaryInterval = summaryInterval;
+    this.summaryStart = new AtomicLong(System.currentTimeMillis());
+  }
+
+  /**
+   * Creates logger from JAAS options.
+   *
+   * @param logger logger for messages
+   * @param message message with one placeholder for principal name
+   * @param summaryMessage message with placeholders for interval and counts by principal
+   * @param options JAAS options
+   * @return success logger
+   */
+  @Nonnull
+  static SuccessLogger create(@Nonnull Logger logger, @Nonnull String message,
+      @Nonnull String summaryMessage, @Nonnull Map<String, String> options) {
+    String mode = options.getOrDefault(MODE_OPTION, ALL_MODE).trim().toLowerCase(Locale.ROOT);
+    long sampleRate = 1;
+    if (mode.startsWith(SAMPLE_MODE_PREFIX)) {
+      sampleRate = Long.parseLong(mode.substring(SAMPLE_MODE_PREFIX.length()).trim());
+      if (sampleRate < 1) {
+        throw new IllegalArgumentException("Sample rate must be positive: " + mode);
+      }
+      mode = SAMPLE_MODE_PREFIX;
+    } else if (!ALL_MODE.equals(mode) && !OFF_MODE.equals(mode) && !SUMMARY_MODE.equals(mode)) {
+      throw new IllegalArgumentException("Unknown success log mode: " + mode);
+    }
+    String summaryInterval = options.get(SUMMARY_INTERVAL_OPTION);
+    return new SuccessLogger(logger, message, summaryMessage, mode, sampleRate,
+        (summaryInterval == null || summaryInterval.isEmpty())
+            ? DEFAULT_SUMMARY_INTERVAL : Long.parseLong(summaryInterval));
+  }
+
+  /**
+   * Logs successfully obtained or validated token.
+   *
+   * @param principalName token principal
+   */
+  void log(@Nullable String principalName) {
+    if (OFF_MODE.equals(mode) || !logger.isInfoEnabled()) {
+      return;
+    }
+    if (ALL_MODE.equals(mode)) {
+      logger.info(message, principalName);
+    } else if (SUMMARY_MODE.equals(mode)) {
+      count(principalName);
+      long start = summaryStart.get();
+      long currentTime = System.currentTimeMillis();
+      if (currentTime - start >= summaryInterval
+          && summaryStart.compareAndSet(start, currentTime)) {
+        logSummary(currentTime - start);
+      }
+    } else if (counter.getAndIncrement() % sampleRate == 0) {
+      logger.info(message, principalName);
+    }
+  }
+
+  private void count(@Nullable String principalName) {
+    String principal = String.valueOf(principalName);
+    LongAdder count = principalCounts.get(principal);
+    if (count == null) {
+      if (principalCounts.size() >= MAX_SUMMARY_PRINCIPALS) {
+        principal = OTHER_PRINCIPALS;
+      }
+      count = principalCounts.computeIfAbsent(principal, key -> new LongAdder());
+    }
+    count.increment();
+  }
+
+  /**
+   * Logs summary of tokens which have not been logged yet.
+   */
+  void flush() {
+    if (SUMMARY_MODE.equals(mode) && logger.isInfoEnabled()) {
+      long currentTime = System.currentTimeMillis();
+      logSummary(currentTime - summaryStart.getAndSet(currentTime));
+    }
+  }
+
+  private void logSummary(long interval) {
+    Map<String, Long> summary = new TreeMap<>();
+    for (Map.Entry<String, LongAdder> entry : principalCounts.entrySet()) {
+      long count = entry.getValue().sumThenReset();
+      if (count == 0) {
+        principalCounts.remove(entry.getKey(), entry.getValue());
+      } else {
+        summary.put(entry.getKey(), count);
+      }
+    }
+    if (!summary.isEmpty()) {
+      logger.info(summaryMessage, interval, summary);
+    }
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Extracts roles from token claims by compiled claim paths.
+ *
+ * <p>Paths are separated by comma. Every path is a dot-separated sequence of claim names and
+ * may be followed by {@code =prefix}, in this case the prefix is added to every role found by the
+ * path. Roles of all paths are combined into one set, for example
+ * {@code realm_access.roles, resource_access.kafka.roles=kafka:, scope}.</p>
+ *
+ * <p>Claim value can be either JSON array of strings or string with space-separated roles.</p>
+ */
+@Immutable
+final class TokenRolesExtractor {
+
+  private static final Pattern PATH_SEPARATOR = Pattern.compile(",");
+  private static final Pattern NAME_SEPARATOR = Pattern.compile("\\.");
+  private static final String PREFIX_SEPARATOR = "=";
+
+  static final TokenRolesExtractor EMPTY = new TokenRolesExtractor(Collections.emptyList());
+
+  @Nonnull
+  private final List<RolesPath> paths;
+
+  private TokenRolesExtractor(@Nonnull List<RolesPath> paths) {
+    this.paths = paths;
+  }
+
+  /**
+   * Compiles extractor for the given configuration of roles paths.
+   *
+   * @param tokenRolesPath comma-separated list of claim paths
+   * @return compiled extractor
+   */
+  @Nonnull
+  static TokenRolesExtractor compile(@Nonnull String tokenRolesPath) {
+    List<RolesPath> paths = new ArrayList<>();
+    for (String path : PATH_SEPARATOR.split(tokenRolesPath)) {
+      String prefix = "";
+      int prefixIndex = path.indexOf(PREFIX_SEPARATOR);
+      if (prefixIndex >= 0) {
+        prefix = path.substring(prefixIndex + 1).trim();
+        path = path.substring(0, prefixIndex);
+      }
+      path = path.trim();
+      if (!path.isEmpty()) {
+        paths.add(new RolesPath(NAME_SEPARATOR.split(path), prefix));
+      }
+    }
+    return paths.isEmpty() ? EMPTY : new TokenRolesExtractor(Collections.unmodifiableList(paths));
+  }
+
+  /**
+   * Returns union of roles found by all paths.
+   *
+   * @param claims token claims
+   * @return unmodifiable set of roles
+   */
+  @Nonnull
+  Set<String> extract(@Nonnull Map<String, Object> claims) {
+    if (paths.isEmpty()) {
+      return Collections.emptySet();
+    }
+    Set<String> roles = new HashSet<>();
+    for (RolesPath path : paths) {
+      path.collect(claims, roles);
+    }
+    return roles.isEmpty() ? Collections.emptySet() : Collections.unmodifiableSet(roles);
+  }
+
+  @Immutable
+  private static final class RolesPath {
+    @Nonnull
+    private final String[] names;
+    @Nonnull
+    private final String prefix;
+
+    private RolesPath(@Nonnull String[] names, @Nonnull String prefix) {
+      for (int i = 0; i < names.length; i++) {
+        names[i] = names[i].trim();
+      }
+      this.names = names;
+      this.prefix = prefix;
+    }
+
+    private void collect(@Nonnull Map<String, Object> claims, @Nonnull Set<String> roles) {
+      Object value = resolve(claims);
+      if (value instanceof List) {
+        for (Object role : (List<?>) value) {
+          if (role instanceof String) {
+            roles.add(prefix + role);
+          }
+        }
+      } else if (value instanceof String) {
+        for (String role : ((String) value).split(OAuthBearerJwt.SPACE)) {
+          if (!role.isEmpty()) {
+            roles.add(prefix + role);
+          }
+        }
+      }
+    }
+
+    @Nullable
+    private Object resolve(@Nonnull Map<String, Object> claims) {
+      Object node = claims;
+      for (String name : names) {
+        if (!(node instanceof Map)) {
+          return null;
+        }
+        node = ((Map<?, ?>) node).get(name);
+      }
+      return node;
+    }
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+import net.minidev.json.JSONObject;
+
+/**
+ * Request which is sent by {@link HttpTransport}. Response is always expected as JSON object.
+ */
+@NotThreadSafe
+final class TransportRequest {
+
+  static final String GET = "GET";
+  static final String POST = "POST";
+  static final String FORM_CONTENT_TYPE = "application/x-www-form-urlencoded";
+  static final String JSON_CONTENT_TYPE = "application/json";
+
+  @Nonnull
+  private final String method;
+  @Nonnull
+  private final String url;
+  @Nullable
+  private final String body;
+  @Nullable
+  private final String contentType;
+  @Nonnull
+  private final Map<String, String> headers = new LinkedHashMap<>();
+  private int timeout;
+
+  private TransportRequest(@Nonnull String method, @Nonnull String url, @Nullable String body,
+      @Nullable String contentType) {
+    this.method = method;
+    this.url = url;
+    this.body = body;
+    this.contentType = contentType;
+  }
+
+  @Nonnull
+  static TransportRequest get(@Nonnull String url) {
+    return new TransportRequest(GET, url, null, null);
+  }
+
+  /**
+   * Creates POST request with URL-encoded form.
+   *
+   * @param url request url
+   * @param params form parameters
+   * @return request
+   */
+  @Nonnull
+  static TransportRequest postForm(@Nonnull String url, @Nonnull Map<String, String> params) {
+    StringBuilder form = new StringBuilder();
+    for (Map.Entry<String, String> param : params.entrySet()) {
+      if (form.length() > 0) {
+        form.append('&');
+      }
+      form.append(URLEncoder.encode(param.getKey(), StandardCharsets.UTF_8)).append('=')
+          .append(URLEncoder.encode(param.getValue(), StandardCharsets.UTF_8));
+    }
+    return new TransportRequest(POST, url, form.toString(), FORM_CONTENT_TYPE);
+  }
+
+  /**
+   * Creates POST request with JSON object.
+   *
+   * @param url request url
+   * @param body JSON object fields
+   * @return request
+   */
+  @Nonnull
+  static TransportRequest postJson(@Nonnull String url, @Nonnull Map<String, ?> body) {
+    return new TransportRequest(POST, url, JSONObject.toJSONString(body), JSON_CONTENT_TYPE);
+  }
+
+  @Nonnull
+  TransportRequest header(@Nonnull String name, @Nonnull String value) {
+    headers.put(name, value);
+    return this;
+  }
+
+  /**
+   * Sets time to wait for response.
+   *
+   * @param timeout timeout in milliseconds, {@code 0} means no timeout
+   * @return this request
+   */
+  @Nonnull
+  TransportRequest timeout(int timeout) {
+    this.timeout = timeout;
+    return this;
+  }
+
+  int timeout() {
+    return timeout;
+  }
+
+  @Nonnull
+  String method() {
+    return method;
+  }
+
+  @Nonnull
+  String url() {
+    return url;
+  }
+
+  @Nullable
+  String body() {
+    return body;
+  }
+
+  @Nullable
+  String contentType() {
+    return contentType;
+  }
+
+  @Nonnull
+  Map<String, String> headers() {
+    return Collections.unmodifiableMap(headers);
+  }
+}
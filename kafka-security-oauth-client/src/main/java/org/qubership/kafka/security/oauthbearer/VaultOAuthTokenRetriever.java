@@ -17,18 +17,16 @@
 package org.qubership.kafka.security.oauthbearer;
 
 import static java.util.Objects.requireNonNull;
-import static org.qubership.kafka.security.oauthbearer.OAuthLoginUtils.createClient;
+import static org.qubership.kafka.security.oauthbearer.OAuthLoginUtils.createTransport;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Map;
-import javax.ws.rs.client.Client;
-import javax.ws.rs.client.Entity;
-import javax.ws.rs.client.Invocation;
-import javax.ws.rs.client.WebTarget;
-import javax.ws.rs.core.MediaType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -44,8 +42,8 @@ public class VaultOAuthTokenRetriever implements TokenRetriever {
   private static final String KUBERNETES_SERVICE_ACCOUNT_TOKEN_KEY =
           "KUBERNETES_SERVICE_ACCOUNT_TOKEN";
 
-  private Client client;
-  private WebTarget vaultWebTarget;
+  private HttpTransport transport;
+  private String vaultUrl;
   private String vaultRolePath;
   private String vaultAuthRole;
 
@@ -54,9 +52,8 @@ public class VaultOAuthTokenRetriever implements TokenRetriever {
 
   @Override
   public void configure(Map<String, String> options) {
-    client = createClient(LOGGER);
-    String vaultUrl = options.get(VAULT_ENDPOINT_OPTION);
-    vaultWebTarget = client.target(vaultUrl);
+    transport = createTransport(options, 0);
+    vaultUrl = options.get(VAULT_ENDPOINT_OPTION);
     vaultRolePath = options.get(VAULT_ROLE_PATH_OPTION);
     vaultAuthRole = options.get(VAULT_AUTH_ROLE_OPTION);
   }
@@ -69,17 +66,15 @@ public class VaultOAuthTokenRetriever implements TokenRetriever {
   public String retrieveAccessToken() {
     String vaultToken = login();
 
-    WebTarget oidcWebTarget = vaultWebTarget.path("v1/identity/oidc/token/{oidc_role_path}")
-            .resolveTemplate("oidc_role_path", vaultRolePath);
-    Invocation.Builder invocationBuilder = oidcWebTarget.request(MediaType.APPLICATION_JSON_TYPE);
-    invocationBuilder.header("X-Vault-Token", vaultToken);
-    Map<String, Map<String, String>> response = invocationBuilder.get(Map.class);
-    return response.get("data").get("token");
+    String oidcRolePath = URLEncoder.encode(vaultRolePath, StandardCharsets.UTF_8)
+        .replace("+", "%20");
+    Map<String, Object> response = send(
+        TransportRequest.get(vaultPath("v1/identity/oidc/token/" + oidcRolePath))
+            .header("X-Vault-Token", vaultToken));
+    return (String) ((Map<?, ?>) response.get("data")).get("token");
   }
 
   private String login() {
-    WebTarget loginWebTarget = vaultWebTarget.path("v1/auth/kubernetes/login");
-    Invocation.Builder invocationBuilder = loginWebTarget.request(MediaType.APPLICATION_JSON_TYPE);
     String jwt = getServiceAccountJwt();
 
     Map<String, String> loginBody = new HashMap<String, String>() {
@@ -88,9 +83,22 @@ public class VaultOAuthTokenRetriever implements TokenRetriever {
         put("role", vaultAuthRole);
       }
     };
-    Map<String, Map<String, Object>> response =
-            invocationBuilder.post(Entity.json(loginBody), Map.class);
-    return (String) response.get("auth").get("client_token");
+    Map<String, Object> response =
+            send(TransportRequest.postJson(vaultPath("v1/auth/kubernetes/login"), loginBody));
+    return (String) ((Map<?, ?>) response.get("auth")).get("client_token");
+  }
+
+  private String vaultPath(String path) {
+    return vaultUrl.endsWith("/") ? vaultUrl + path : vaultUrl + "/" + path;
+  }
+
+  private Map<String, Object> send(TransportRequest request) {
+    try {
+      return transport.send(request);
+    } catch (IOException e) {
+      throw new UncheckedIOException(
+          String.format("Request to Vault %s failed", request.url()), e);
+    }
   }
 
   private String getServiceAccountJwt() {
@@ -107,13 +115,13 @@ public class VaultOAuthTokenRetriever implements TokenRetriever {
   }
 
   public String getIdpEndpoint() {
-    return vaultWebTarget.getUri().toString();
+    return vaultUrl;
   }
 
   @Override
   public void close() {
-    if (client != null) {
-      client.close();
+    if (transport != null) {
+      transport.close();
     }
   }
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JdkHttpTransportTest {
+
+  private final AtomicReference<String> requestBody = new AtomicReference<>();
+  private final AtomicReference<String> contentType = new AtomicReference<>();
+  private HttpServer server;
+  private HttpTransport transport;
+  private String baseUrl;
+
+  @Before
+  public void setUp() throws Exception {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/json", exchange -> {
+      contentType.set(exchange.getRequestHeaders().getFirst("Content-Type"));
+      requestBody.set(
+          new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+      respond(exchange, 200, "{\"access_token\": \"token\", \"expires_in\": 300}");
+    });
+    server.createContext("/array", exchange -> respond(exchange, 200, "[1, 2]"));
+    server.createContext("/missing", exchange -> respond(exchange, 404, "{}"));
+    server.start();
+    baseUrl = "http://localhost:" + server.getAddress().getPort();
+    transport = new JdkHttpTransport(1000);
+  }
+
+  @After
+  public void tearDown() {
+    transport.close();
+    server.stop(0);
+  }
+
+  private static void respond(HttpExchange exchange, int status,
+      String response) throws IOException {
+    byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (OutputStream outputStream = exchange.getResponseBody()) {
+      outputStream.write(bytes);
+    }
+  }
+
+  @Test
+  public void testGetJsonObject() throws Exception {
+    Map<String, Object> response =
+        transport.send(TransportRequest.get(baseUrl + "/json").timeout(1000));
+    assertThat(response.get("access_token"), equalTo("token"));
+    assertThat(((Number) response.get("expires_in")).intValue(), equalTo(300));
+  }
+
+  @Test
+  public void testPostForm() throws Exception {
+    transport.send(TransportRequest.postForm(baseUrl + "/json",
+        Collections.singletonMap("grant_type", "client_credentials")));
+    assertThat(contentType.get(), equalTo(TransportRequest.FORM_CONTENT_TYPE));
+    assertThat(requestBody.get(), equalTo("grant_type=client_credentials"));
+  }
+
+  @Test
+  public void testSendAsync() throws Exception {
+    Map<String, Object> response =
+        transport.sendAsync(TransportRequest.get(baseUrl + "/json")).get();
+    assertThat(response.get("access_token"), equalTo("token"));
+  }
+
+  @Test(expected = IOException.class)
+  public void testFailOnErrorStatus() throws Exception {
+    transport.send(TransportRequest.get(baseUrl + "/missing"));
+  }
+
+  @Test(expected = IOException.class)
+  public void testFailOnNonObjectResponse() throws Exception {
+    transport.send(TransportRequest.get(baseUrl + "/array"));
+  }
+
+  @Test
+  public void testFailAsyncOnErrorStatus() throws Exception {
+    try {
+      transport.sendAsync(TransportRequest.get(baseUrl + "/missing")).get();
+    } catch (ExecutionException e) {
+      assertThat(e.getCause() instanceof IOException, equalTo(true));
+      return;
+    }
+    throw new AssertionError("Request must fail");
+  }
+}
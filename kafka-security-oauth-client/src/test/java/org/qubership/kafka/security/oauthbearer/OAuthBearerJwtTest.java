@@ -93,7 +93,8 @@ public class OAuthBearerJwtTest {
 
   @Test
   public void testCreateWithValidJwtTokenStructureAndCheckRolesList() {
-    OAuthBearerJwt jwt = new OAuthBearerJwt(VALID_TOKEN, REALM_ACCESS_ROLES_PATH);
+    OAuthBearerJwt jwt = new OAuthBearerJwt(VALID_TOKEN,
+        TokenRolesExtractor.compile(REALM_ACCESS_ROLES_PATH));
     String[] expectedRoles = {"Administrator", "ROLE_ADMINISTRATOR", "ROLE_ADMIN", "Tenant Manager",
         "System Administrator"};
     assertThat(jwt.roles(), equalTo(new HashSet<>(Arrays.asList(expectedRoles))));
@@ -101,8 +102,17 @@ public class OAuthBearerJwtTest {
 
   @Test
   public void testCreateWithValidJwtTokenStructureAndCheckPlainRoles() {
-    OAuthBearerJwt jwt = new OAuthBearerJwt(VALID_TOKEN, SCOPE_PATH);
+    OAuthBearerJwt jwt = new OAuthBearerJwt(VALID_TOKEN, TokenRolesExtractor.compile(SCOPE_PATH));
     String[] expectedRoles = {"openid", "profile"};
     assertThat(jwt.roles(), equalTo(new HashSet<>(Arrays.asList(expectedRoles))));
   }
+
+  @Test
+  public void testCreateWithValidJwtTokenStructureAndCheckRolesOfSeveralPaths() {
+    OAuthBearerJwt jwt = new OAuthBearerJwt(VALID_TOKEN,
+        TokenRolesExtractor.compile(REALM_ACCESS_ROLES_PATH + ", " + SCOPE_PATH + "=scope:"));
+    String[] expectedRoles = {"Administrator", "ROLE_ADMINISTRATOR", "ROLE_ADMIN", "Tenant Manager",
+        "System Administrator", "scope:openid", "scope:profile"};
+    assertThat(jwt.roles(), equalTo(new HashSet<>(Arrays.asList(expectedRoles))));
+  }
 }
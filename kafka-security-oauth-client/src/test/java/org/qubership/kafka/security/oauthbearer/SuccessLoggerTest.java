@@ -0,0 +1,108 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import org.slf4j.Logger;
+
+public class SuccessLoggerTest {
+
+  private static final String MESSAGE = "Validated token with principal: {}";
+  private static final String SUMMARY_MESSAGE = "Validated tokens in the last {} ms: {}";
+
+  private final List<List<Object>> messages = new ArrayList<>();
+  private final Logger logger = (Logger) Proxy.newProxyInstance(getClass().getClassLoader(),
+      new Class<?>[] {Logger.class}, (proxy, method, args) -> {
+        if ("isInfoEnabled".equals(method.getName())) {
+          return true;
+        }
+        if ("info".equals(method.getName())) {
+          messages.add(Arrays.asList(args));
+        }
+        return null;
+      });
+
+  private SuccessLogger create(String mode) {
+    Map<String, String> options = new HashMap<>();
+    if (mode != null) {
+      options.put(SuccessLogger.MODE_OPTION, mode);
+    }
+    options.put(SuccessLogger.SUMMARY_INTERVAL_OPTION, "3600000");
+    return SuccessLogger.create(logger, MESSAGE, SUMMARY_MESSAGE, options);
+  }
+
+  @Test
+  public void testLogEveryTokenByDefault() {
+    SuccessLogger successLogger = create(null);
+    successLogger.log("alice");
+    successLogger.log("bob");
+    assertThat(messages, contains(Arrays.<Object>asList(MESSAGE, "alice"),
+        Arrays.<Object>asList(MESSAGE, "bob")));
+  }
+
+  @Test
+  public void testLogNothingWhenOff() {
+    SuccessLogger successLogger = create("off");
+    successLogger.log("alice");
+    successLogger.flush();
+    assertThat(messages, empty());
+  }
+
+  @Test
+  public void testLogSampledTokens() {
+    SuccessLogger successLogger = create("sample:3");
+    for (int i = 0; i < 7; i++) {
+      successLogger.log("alice");
+    }
+    assertThat(messages.size(), equalTo(3));
+  }
+
+  @Test
+  public void testLogSummaryByPrincipal() {
+    SuccessLogger successLogger = create("summary");
+    successLogger.log("alice");
+    successLogger.log("bob");
+    successLogger.log("alice");
+    assertThat(messages, empty());
+    successLogger.flush();
+    assertThat(messages.size(), equalTo(1));
+    Map<String, Long> summary = new HashMap<>();
+    summary.put("alice", 2L);
+    summary.put("bob", 1L);
+    assertThat(messages.get(0).get(2), equalTo(summary));
+    successLogger.flush();
+    assertThat(messages.size(), equalTo(1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRejectUnknownMode() {
+    SuccessLogger.create(logger, MESSAGE, SUMMARY_MESSAGE,
+        Collections.singletonMap(SuccessLogger.MODE_OPTION, "sometimes"));
+  }
+}
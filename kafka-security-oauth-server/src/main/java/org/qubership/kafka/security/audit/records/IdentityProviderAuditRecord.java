@@ -0,0 +1,73 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.audit.records;
+
+import java.util.Map;
+import javax.annotation.Nonnull;
+
+/**
+ * Audit record for change of Identity Provider endpoint availability.
+ */
+public class IdentityProviderAuditRecord extends AbstractAuditRecord {
+
+  private static final String IDENTITY_PROVIDER_AVAILABLE_TYPE = "IDENTITY_PROVIDER_AVAILABLE";
+  private static final String IDENTITY_PROVIDER_UNAVAILABLE_TYPE =
+      "IDENTITY_PROVIDER_UNAVAILABLE";
+
+  @Nonnull
+  private final String endpoint;
+  @Nonnull
+  private final String circuitState;
+
+  private IdentityProviderAuditRecord(@Nonnull String endpoint, @Nonnull String circuitState,
+      boolean result) {
+    super(null, null, result);
+    this.endpoint = endpoint;
+    this.circuitState = circuitState;
+  }
+
+  /**
+   * Creates {@link IdentityProviderAuditRecord} for change of circuit breaker state.
+   *
+   * @param endpoint url of Identity Provider endpoint
+   * @param circuitState new state of circuit breaker
+   * @param available whether requests to endpoint are allowed in new state
+   * @return audit record for circuit breaker state change
+   */
+  public static IdentityProviderAuditRecord circuitStateChanged(@Nonnull String endpoint,
+      @Nonnull String circuitState,
+      boolean available) {
+    return new IdentityProviderAuditRecord(endpoint, circuitState, available);
+  }
+
+  @Override
+  public String getName() {
+    return String.format("Circuit breaker of Identity Provider endpoint '%s' is %s",
+        endpoint, circuitState);
+  }
+
+  @Override
+  public String getOperationType() {
+    return result ? IDENTITY_PROVIDER_AVAILABLE_TYPE : IDENTITY_PROVIDER_UNAVAILABLE_TYPE;
+  }
+
+  @Override
+  protected void enrichExtension(Map<String, String> extension) {
+    extension.put("endpoint", endpoint);
+    extension.put("circuitState", circuitState);
+  }
+}
@@ -71,7 +71,7 @@ interface ExtendedAuthorizer {
     Set<String> requestPrincipalNames = Collections.singleton(principalName);
     if (principal instanceof OAuthKafkaPrincipal) {
       requestPrincipalType = Constants.ROLE_PRINCIPAL_TYPE;
-      requestPrincipalNames = ((OAuthKafkaPrincipal) principal).getToken().roles();
+      requestPrincipalNames = ((OAuthKafkaPrincipal) principal).getRoles();
     }
 
     // To successfully compare the current principal with superusers, it must be of KafkaPrincipal
@@ -20,6 +20,7 @@ import org.qubership.kafka.security.audit.AuditConstants;
 import org.qubership.kafka.security.audit.AuditRecordWriter;
 import org.qubership.kafka.security.audit.records.AuthenticationAuditRecord;
 import org.qubership.kafka.security.oauthbearer.OAuthBearerJwt;
+import org.qubership.kafka.security.oauthbearer.OAuthBearerRolesToken;
 import org.qubership.kafka.security.oauthbearer.OAuthKafkaPrincipal;
 import java.nio.ByteBuffer;
 import javax.net.ssl.SSLPeerUnverifiedException;
@@ -99,8 +100,8 @@ public class ExtendedKafkaPrincipalBuilder implements KafkaPrincipalBuilder, Kaf
         );
         return principal;
       } else {
-        OAuthBearerJwt jwt = token instanceof OAuthBearerJwt
-            ? (OAuthBearerJwt) token : new OAuthBearerJwt(token.value());
+        OAuthBearerRolesToken jwt = token instanceof OAuthBearerRolesToken
+            ? (OAuthBearerRolesToken) token : new OAuthBearerJwt(token.value());
         LOGGER.debug("OAuth Bearer JWT is {}", jwt);
         KafkaPrincipal principal = new OAuthKafkaPrincipal(KafkaPrincipal.USER_TYPE,
             saslServer.getAuthorizationID(),
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Limit of concurrent token validations which need signature verification or public key fetch.
+ *
+ * <p>When all permits are taken, new validations are either rejected immediately or wait for a
+ * permit no longer than the configured timeout, depending on {@link OverflowPolicy}. Tokens found
+ * in cache do not take permits, so already validated clients are not slowed down by reconnect
+ * storms.</p>
+ */
+@ThreadSafe
+final class AdmissionLimiter {
+
+  /**
+   * Handling of validations which exceed the limit.
+   */
+  enum OverflowPolicy {
+    /**
+     * Validation is rejected immediately.
+     */
+    REJECT,
+    /**
+     * Validation waits for a free permit up to the queue timeout.
+     */
+    QUEUE;
+
+    @Nonnull
+    static OverflowPolicy parse(@Nullable String value) {
+      if (value == null || value.isEmpty()) {
+        return REJECT;
+      }
+      try {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException("Unknown validation overflow policy: " + value, e);
+      }
+    }
+  }
+
+  private final int maxConcurrent;
+  @Nonnull
+  private final OverflowPolicy policy;
+  private final long queueTimeout;
+  @Nullable
+  private final Semaphore permits;
+  @Nonnull
+  private final LongAdder rejections = new LongAdder();
+  @Nonnull
+  private final LongAdder queued = new LongAdder();
+
+  /**
+   * Creates limiter of concurrent validations.
+   *
+   * @param maxConcurrent maximum number of concurrent validations, {@code 0} disables the limit
+   * @param policy handling of validations which exceed the limit
+   * @param queueTimeout maximum time in milliseconds to wait for a permit with
+   *                     {@link OverflowPolicy#QUEUE} policy
+   */
+  AdmissionLimiter(int maxConcurrent, @Nonnull OverflowPolicy policy, long queueTimeout) {
+    this.maxConcurrent = maxConcurrent;
+    this.policy = policy;
+    this.queueTimeout = queueTimeout;
+    this.permits = maxConcurrent > 0 ? new Semaphore(maxConcurrent) : null;
+  }
+
+  /**
+   * Takes permit for validation. Caller must return taken permit by {@link #release()}.
+   *
+   * @throws AdmissionRejectedException if permit cannot be taken according to overflow policy
+   */
+  void acquire() throws AdmissionRejectedException {
+    if (permits == null || permits.tryAcquire()) {
+      return;
+    }
+    if (policy == OverflowPolicy.QUEUE) {
+      queued.increment();
+      try {
+        if (permits.tryAcquire(queueTimeout, TimeUnit.MILLISECONDS)) {
+          return;
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    rejections.increment();
+    throw new AdmissionRejectedException(maxConcurrent);
+  }
+
+  void release() {
+    if (permits != null) {
+      permits.release();
+    }
+  }
+
+  /**
+   * Returns number of validations which currently hold permits.
+   *
+   * @return number of running validations, always {@code 0} if limit is disabled
+   */
+  int active() {
+    return permits != null ? maxConcurrent - permits.availablePermits() : 0;
+  }
+
+  long rejections() {
+    return rejections.sum();
+  }
+
+  long queued() {
+    return queued.sum();
+  }
+}
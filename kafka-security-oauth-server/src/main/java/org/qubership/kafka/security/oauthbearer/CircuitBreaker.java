@@ -0,0 +1,135 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Circuit breaker of one Identity Provider endpoint.
+ *
+ * <p>Circuit opens after the configured number of consecutive failed requests, then requests fail
+ * immediately without waiting for connection and read timeouts. When open duration passes, one
+ * probe request is let through: its success closes circuit, its failure opens circuit again.</p>
+ */
+@ThreadSafe
+final class CircuitBreaker {
+
+  enum State {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+  }
+
+  /**
+   * Listener of circuit state changes.
+   */
+  interface Listener {
+
+    void onStateChange(@Nonnull String endpoint, @Nonnull State from, @Nonnull State to);
+
+    void onRejection(@Nonnull String endpoint);
+  }
+
+  @Nonnull
+  private final String endpoint;
+  private final int failureThreshold;
+  private final long openDuration;
+  @Nonnull
+  private final Listener listener;
+  @GuardedBy("this")
+  @Nonnull
+  private State state = State.CLOSED;
+  @GuardedBy("this")
+  private int failures;
+  @GuardedBy("this")
+  private long openedAt;
+  @GuardedBy("this")
+  private boolean probing;
+
+  /**
+   * Creates circuit breaker in closed state.
+   *
+   * @param endpoint url of protected endpoint
+   * @param failureThreshold number of consecutive failures which opens circuit, {@code 0} disables
+   *                         circuit breaker
+   * @param openDuration time in milliseconds after which open circuit lets probe request through
+   * @param listener listener of state changes
+   */
+  CircuitBreaker(@Nonnull String endpoint, int failureThreshold, long openDuration,
+      @Nonnull Listener listener) {
+    this.endpoint = endpoint;
+    this.failureThreshold = failureThreshold;
+    this.openDuration = openDuration;
+    this.listener = listener;
+  }
+
+  /**
+   * Checks that request to endpoint is allowed. Caller must report result of allowed request by
+   * {@link #onSuccess()} or {@link #onFailure(long)}.
+   *
+   * @param currentTime current time in milliseconds
+   * @throws CircuitOpenException if circuit is open
+   */
+  void acquire(long currentTime) throws CircuitOpenException {
+    synchronized (this) {
+      if (state == State.CLOSED) {
+        return;
+      }
+      if (state == State.OPEN && currentTime - openedAt >= openDuration) {
+        transition(State.HALF_OPEN);
+      }
+      if (state == State.HALF_OPEN && !probing) {
+        probing = true;
+        return;
+      }
+    }
+    listener.onRejection(endpoint);
+    throw new CircuitOpenException(endpoint);
+  }
+
+  synchronized void onSuccess() {
+    failures = 0;
+    probing = false;
+    if (state != State.CLOSED) {
+      transition(State.CLOSED);
+    }
+  }
+
+  synchronized void onFailure(long currentTime) {
+    failures++;
+    probing = false;
+    if (state == State.HALF_OPEN
+        || (state == State.CLOSED && failureThreshold > 0 && failures >= failureThreshold)) {
+      openedAt = currentTime;
+      transition(State.OPEN);
+    }
+  }
+
+  @Nonnull
+  synchronized State state() {
+    return state;
+  }
+
+  @GuardedBy("this")
+  private void transition(@Nonnull State to) {
+    State from = state;
+    state = to;
+    listener.onStateChange(endpoint, from, to);
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSetCacheRefreshEvaluator;
+import com.nimbusds.jose.jwk.source.JWKSetSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import java.io.IOException;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * JWK set source which loads JWK set only when {@link CircuitBreaker circuit} of JWKS endpoint is
+ * not open.
+ */
+@ThreadSafe
+final class CircuitBreakingJWKSetSource implements JWKSetSource<SecurityContext> {
+
+  @Nonnull
+  private final JWKSetSource<SecurityContext> source;
+  @Nonnull
+  private final CircuitBreaker circuitBreaker;
+
+  CircuitBreakingJWKSetSource(@Nonnull JWKSetSource<SecurityContext> source,
+      @Nonnull CircuitBreaker circuitBreaker) {
+    this.source = source;
+    this.circuitBreaker = circuitBreaker;
+  }
+
+  @Override
+  public JWKSet getJWKSet(JWKSetCacheRefreshEvaluator refreshEvaluator, long currentTime,
+      SecurityContext context) throws KeySourceException {
+    circuitBreaker.acquire(currentTime);
+    try {
+      JWKSet jwkSet = source.getJWKSet(refreshEvaluator, currentTime, context);
+      circuitBreaker.onSuccess();
+      return jwkSet;
+    } catch (KeySourceException | RuntimeException e) {
+      circuitBreaker.onFailure(currentTime);
+      throw e;
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    source.close();
+  }
+}
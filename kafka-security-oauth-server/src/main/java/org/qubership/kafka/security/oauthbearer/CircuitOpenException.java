@@ -0,0 +1,36 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import com.nimbusds.jose.KeySourceException;
+import javax.annotation.Nonnull;
+
+/**
+ * Exception which is thrown when request to Identity Provider endpoint is not sent, because its
+ * {@link CircuitBreaker circuit} is open.
+ */
+final class CircuitOpenException extends KeySourceException {
+
+  /**
+   * Default constructor for exception.
+   *
+   * @param endpoint url of endpoint with open circuit
+   */
+  CircuitOpenException(@Nonnull String endpoint) {
+    super("Circuit breaker of Identity Provider endpoint " + endpoint + " is open");
+  }
+}
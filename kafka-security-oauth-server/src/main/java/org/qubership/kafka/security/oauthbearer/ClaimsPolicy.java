@@ -0,0 +1,206 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Declarative constraints on token claims which are compiled once into list of rules.
+ *
+ * <p>Rules are separated by {@code ;}. Every rule is {@code <claim path> <operator> [<values>]},
+ * where claim path is a dot-separated sequence of claim names and values are separated by comma.
+ * Supported operators are:</p>
+ * <ul>
+ *   <li>{@code exists} - claim is present, for example {@code email exists};</li>
+ *   <li>{@code =} - claim is equal to one of values, for example {@code azp = kafka,kafka-ui};</li>
+ *   <li>{@code !=} - claim is absent or is not equal to any of values;</li>
+ *   <li>{@code contains} - claim, which is JSON array or string with space-separated items,
+ *   contains all values, for example {@code aud contains kafka};</li>
+ *   <li>{@code matches} - claim matches regular expression, value is not split by comma.</li>
+ * </ul>
+ */
+@Immutable
+final class ClaimsPolicy {
+
+  private static final String RULE_SEPARATOR = ";";
+  private static final Pattern RULE_PARTS = Pattern.compile("\\s+");
+  private static final Pattern NAME_SEPARATOR = Pattern.compile("\\.");
+
+  static final ClaimsPolicy EMPTY = new ClaimsPolicy(Collections.emptyList());
+
+  @Nonnull
+  private final List<Rule> rules;
+
+  private ClaimsPolicy(@Nonnull List<Rule> rules) {
+    this.rules = rules;
+  }
+
+  /**
+   * Compiles policy.
+   *
+   * @param policy rules separated by {@code ;}
+   * @return compiled policy
+   * @throws IllegalArgumentException if policy has invalid rule
+   */
+  @Nonnull
+  static ClaimsPolicy compile(@Nullable String policy) {
+    if (policy == null || policy.trim().isEmpty()) {
+      return EMPTY;
+    }
+    List<Rule> rules = new ArrayList<>();
+    for (String rule : policy.split(RULE_SEPARATOR)) {
+      rule = rule.trim();
+      if (!rule.isEmpty()) {
+        rules.add(compileRule(rule));
+      }
+    }
+    return rules.isEmpty() ? EMPTY : new ClaimsPolicy(Collections.unmodifiableList(rules));
+  }
+
+  @Nonnull
+  private static Rule compileRule(@Nonnull String rule) {
+    String[] parts = RULE_PARTS.split(rule, 3);
+    if (parts.length < 2) {
+      throw new IllegalArgumentException("Claims policy rule has no operator: " + rule);
+    }
+    String claim = parts[0];
+    String[] path = NAME_SEPARATOR.split(claim);
+    String operator = parts[1];
+    String argument = parts.length > 2 ? parts[2].trim() : "";
+    if ("exists".equals(operator)) {
+      return claims -> resolve(claims, path) != null
+          ? null : String.format("Token does not have required claim '%s'", claim);
+    }
+    if (argument.isEmpty()) {
+      throw new IllegalArgumentException("Claims policy rule has no value: " + rule);
+    }
+    switch (operator) {
+      case "=": {
+        Set<String> values = splitValues(argument);
+        return claims -> {
+          Object value = resolve(claims, path);
+          return isScalar(value) && values.contains(value.toString())
+              ? null : String.format("Token claim '%s' must be one of %s", claim, values);
+        };
+      }
+      case "!=": {
+        Set<String> values = splitValues(argument);
+        return claims -> {
+          Object value = resolve(claims, path);
+          return isScalar(value) && values.contains(value.toString())
+              ? String.format("Token claim '%s' must not be one of %s", claim, values) : null;
+        };
+      }
+      case "contains": {
+        Set<String> values = splitValues(argument);
+        return claims -> items(resolve(claims, path)).containsAll(values)
+            ? null : String.format("Token claim '%s' must contain %s", claim, values);
+      }
+      case "matches": {
+        Pattern pattern = Pattern.compile(argument);
+        return claims -> {
+          Object value = resolve(claims, path);
+          return isScalar(value) && pattern.matcher(value.toString()).matches()
+              ? null : String.format("Token claim '%s' must match '%s'", claim, argument);
+        };
+      }
+      default:
+        throw new IllegalArgumentException("Unknown operator in claims policy rule: " + rule);
+    }
+  }
+
+  @Nonnull
+  private static Set<String> splitValues(@Nonnull String argument) {
+    Set<String> values = new LinkedHashSet<>();
+    for (String value : argument.split(",")) {
+      if (!value.trim().isEmpty()) {
+        values.add(value.trim());
+      }
+    }
+    return Collections.unmodifiableSet(values);
+  }
+
+  private static boolean isScalar(@Nullable Object value) {
+    return value != null && !(value instanceof Collection) && !(value instanceof Map);
+  }
+
+  @Nonnull
+  private static Collection<?> items(@Nullable Object value) {
+    if (value instanceof Collection) {
+      return (Collection<?>) value;
+    }
+    if (value instanceof String) {
+      return Arrays.asList(((String) value).split(OAuthBearerJwt.SPACE));
+    }
+    return Collections.emptyList();
+  }
+
+  @Nullable
+  private static Object resolve(@Nonnull Map<String, Object> claims, @Nonnull String[] path) {
+    Object node = claims;
+    for (String name : path) {
+      if (!(node instanceof Map)) {
+        return null;
+      }
+      node = ((Map<?, ?>) node).get(name);
+    }
+    return node;
+  }
+
+  /**
+   * Checks claims against all rules.
+   *
+   * @param claims token claims
+   * @throws TokenPrecheckException with description of the first violated rule
+   */
+  void check(@Nonnull Map<String, Object> claims) throws TokenPrecheckException {
+    for (Rule rule : rules) {
+      String violation = rule.violation(claims);
+      if (violation != null) {
+        throw new TokenPrecheckException(ValidationStage.CLAIMS, violation, false);
+      }
+    }
+  }
+
+  boolean isEmpty() {
+    return rules.isEmpty();
+  }
+
+  @FunctionalInterface
+  private interface Rule {
+
+    /**
+     * Checks claims.
+     *
+     * @param claims token claims
+     * @return description of violation or {@code null} if claims satisfy the rule
+     */
+    @Nullable
+    String violation(@Nonnull Map<String, Object> claims);
+  }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+import org.qubership.kafka.security.audit.AuditConstants;
+import org.qubership.kafka.security.audit.AuditRecordWriter;
+import org.qubership.kafka.security.audit.records.AuthenticationAuditRecord;
+import org.slf4j.Logger;
+
+/**
+ * Reports failed token validations to log and audit log.
+ *
+ * <p>Failures are grouped by reason, principal and issuer. The first failure of a group is
+ * reported in full with stack trace, repeated failures are only counted and reported as one summary
+ * at the end of every report interval. Group is forgotten when it has no failures during the whole
+ * interval, so the next failure is reported in full again.</p>
+ */
+@ThreadSafe
+final class FailureReporter {
+
+  private static final int MAX_TRACKED_FAILURES = 10000;
+
+  @Nonnull
+  private final Logger logger;
+  private final long reportInterval;
+  @Nonnull
+  private final ConcurrentMap<Failure, LongAdder> failures = new ConcurrentHashMap<>();
+  @Nonnull
+  private final LongAdder untrackedFailures = new LongAdder();
+  @GuardedBy("this")
+  @Nullable
+  private ScheduledFuture<?> reporter;
+
+  /**
+   * Creates reporter.
+   *
+   * @param logger logger for failures
+   * @param reportInterval interval in milliseconds between reports of repeated failures,
+   *                       {@code 0} disables grouping and every failure is reported in full
+   */
+  FailureReporter(@Nonnull Logger logger, long reportInterval) {
+    this.logger = logger;
+    this.reportInterval = reportInterval;
+  }
+
+  /**
+   * Starts periodic reports of repeated failures.
+   *
+   * @param executor executor for reports
+   */
+  synchronized void schedule(@Nonnull ScheduledExecutorService executor) {
+    if (reportInterval > 0) {
+      reporter = executor.scheduleWithFixedDelay(
+          this::reportRepeated, reportInterval, reportInterval, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Reports failed validation.
+   *
+   * @param description failure reason
+   * @param e failure cause
+   * @param principalName name of token principal if token has been parsed
+   * @param issuer token issuer if token has been parsed
+   * @return {@code true} if failure has been reported in full, {@code false} if it has been counted
+   *         as repeated
+   */
+  boolean report(@Nonnull String description, @Nonnull Exception e,
+      @Nullable String principalName, @Nullable String issuer) {
+    if (reportInterval > 0) {
+      Failure failure = new Failure(description, principalName, issuer);
+      LongAdder repeats = failures.get(failure);
+      if (repeats == null) {
+        if (failures.size() >= MAX_TRACKED_FAILURES) {
+          untrackedFailures.increment();
+          return false;
+        }
+        repeats = failures.putIfAbsent(failure, new LongAdder());
+      }
+      if (repeats != null) {
+        repeats.increment();
+        return false;
+      }
+    }
+    logger.error("{} (principal: {}, issuer: {})", description, principalName, issuer, e);
+    trackAuditEvent(principalName, description);
+    return true;
+  }
+
+  /**
+   * Reports failures which have been repeated since the previous report.
+   */
+  void reportRepeated() {
+    for (Map.Entry<Failure, LongAdder> entry : failures.entrySet()) {
+      Failure failure = entry.getKey();
+      long repeats = entry.getValue().sumThenReset();
+      if (repeats == 0) {
+        failures.remove(failure, entry.getValue());
+        continue;
+      }
+      logger.error("{} (principal: {}, issuer: {}) has been repeated {} times",
+          failure.description, failure.principalName, failure.issuer, repeats);
+      trackAuditEvent(failure.principalName,
+          failure.description + " (repeated " + repeats + " times)");
+    }
+    long untracked = untrackedFailures.sumThenReset();
+    if (untracked > 0) {
+      logger.error("{} more token validations have failed", untracked);
+    }
+  }
+
+  /**
+   * Stops periodic reports and reports pending repeated failures.
+   */
+  void close() {
+    synchronized (this) {
+      if (reporter != null) {
+        reporter.cancel(false);
+        reporter = null;
+      }
+    }
+    reportRepeated();
+  }
+
+  private static void trackAuditEvent(@Nullable String principalName,
+      @Nonnull String description) {
+    AuditRecordWriter.getInstance().trackAuditEvent(
+        AuthenticationAuditRecord.failed(principalName,
+            AuditConstants.OAUTH_AUTHENTICATION_TYPE, description, null));
+  }
+
+  @Immutable
+  private static final class Failure {
+    @Nonnull
+    private final String description;
+    @Nullable
+    private final String principalName;
+    @Nullable
+    private final String issuer;
+
+    private Failure(@Nonnull String description, @Nullable String principalName,
+        @Nullable String issuer) {
+      this.description = description;
+      this.principalName = principalName;
+      this.issuer = issuer;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Failure)) {
+        return false;
+      }
+      Failure failure = (Failure) o;
+      return description.equals(failure.description)
+          && Objects.equals(principalName, failure.principalName)
+          && Objects.equals(issuer, failure.issuer);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(description, principalName, issuer);
+    }
+  }
+}
@@ -18,11 +18,22 @@ package org.qubership.kafka.security.oauthbearer;
 
 import static net.minidev.json.parser.JSONParser.DEFAULT_PERMISSIVE_MODE;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
 import javax.annotation.concurrent.ThreadSafe;
 import net.minidev.json.JSONArray;
 import net.minidev.json.JSONObject;
@@ -34,6 +45,17 @@ import org.slf4j.LoggerFactory;
 /**
  * This class is designed to resolve url of Identity Provider by issuer value in accordance with
  * rules.
+ *
+ * <p>Urls are compared after normalization: trailing slashes are removed, scheme and host are
+ * compared case-insensitively. Exact whitelist entries are indexed when resolver is created.
+ * Entry can also contain {@code *} wildcards, each of them matches one path segment, for example
+ * {@code https://sso.example.com/realms/*}. Wildcard matches only unreserved url characters and
+ * never matches {@code .} or {@code ..}, so issuer cannot change path of internal url. Segments
+ * matched in external url are substituted to wildcards of internal url in the same order. Issuers
+ * resolved by wildcard entries are cached.</p>
+ *
+ * <p>Every entry has {@link IssuerProfile validation profile}, which is compiled when resolver is
+ * created and is returned together with trusted url.</p>
  */
 @ThreadSafe
 final class IdentityProviderUrlResolver {
@@ -42,17 +64,65 @@ final class IdentityProviderUrlResolver {
 
   private static final String INTERNAL_FIELD = "internal";
   private static final String EXTERNAL_FILED = "external";
+  private static final String WILDCARD = "*";
+  private static final String SEGMENT_PATTERN = "([A-Za-z0-9._~-]+)";
+  private static final int RESOLVED_PATTERNS_CACHE_SIZE = 10000;
 
   @Nonnull
-  private final List<Address> whitelist;
+  private final Map<String, ResolvedIssuer> issuersByUrl;
+  @Nonnull
+  private final List<String> trustedUrls;
+  @Nonnull
+  private final List<PatternAddress> patterns;
+  @Nonnull
+  private final List<IssuerProfile> profiles;
+  @Nonnull
+  private final Cache<String, ResolvedIssuer> resolvedByPattern = CacheBuilder.newBuilder()
+      .maximumSize(RESOLVED_PATTERNS_CACHE_SIZE)
+      .build();
 
-  private IdentityProviderUrlResolver(@Nonnull List<Address> whitelist) {
-    this.whitelist = whitelist;
+  private IdentityProviderUrlResolver(@Nonnull List<Address> whitelist,
+      @Nonnull IssuerProfile defaultProfile) {
+    Map<String, ResolvedIssuer> issuersByUrl = new HashMap<>();
+    Set<String> trustedUrls = new LinkedHashSet<>();
+    List<PatternAddress> patterns = new ArrayList<>();
+    Set<IssuerProfile> profiles = Collections.newSetFromMap(new IdentityHashMap<>());
+    profiles.add(defaultProfile);
+    for (Address address : whitelist) {
+      IssuerProfile profile = defaultProfile.override(address.fields());
+      profiles.add(profile);
+      if (address.isPattern()) {
+        patterns.addAll(PatternAddress.compile(address, profile));
+        continue;
+      }
+      ResolvedIssuer issuer = new ResolvedIssuer(address.trustedUrl(), profile);
+      trustedUrls.add(issuer.url());
+      for (String url : address.urls()) {
+        issuersByUrl.putIfAbsent(normalize(url), issuer);
+      }
+    }
+    this.issuersByUrl = issuersByUrl;
+    this.trustedUrls = Collections.unmodifiableList(new ArrayList<>(trustedUrls));
+    this.patterns = patterns;
+    this.profiles = Collections.unmodifiableList(new ArrayList<>(profiles));
   }
 
   @Nonnull
   static IdentityProviderUrlResolver create(@Nullable String whitelist) {
-    return new IdentityProviderUrlResolver(transformWhitelist(whitelist));
+    return create(whitelist, IssuerProfile.DEFAULT);
+  }
+
+  /**
+   * Creates resolver for the given whitelist.
+   *
+   * @param whitelist JSON array of whitelist entries
+   * @param defaultProfile profile for entries which do not override validation settings
+   * @return resolver
+   */
+  @Nonnull
+  static IdentityProviderUrlResolver create(@Nullable String whitelist,
+      @Nonnull IssuerProfile defaultProfile) {
+    return new IdentityProviderUrlResolver(transformWhitelist(whitelist), defaultProfile);
   }
 
   private static List<Address> transformWhitelist(@Nullable String whitelist) {
@@ -71,11 +141,37 @@ final class IdentityProviderUrlResolver {
       JSONObject jsonAddress = (JSONObject) item;
       String internal = jsonAddress.getAsString(INTERNAL_FIELD);
       String external = jsonAddress.getAsString(EXTERNAL_FILED);
-      result.add(new Address(internal, external));
+      result.add(new Address(internal, external, jsonAddress));
     }
     return result;
   }
 
+  /**
+   * Normalizes url for comparison: removes trailing slashes and converts scheme and host to lower
+   * case. Path is case-sensitive and is not changed.
+   *
+   * @param url url to normalize
+   * @return normalized url
+   */
+  @Nonnull
+  static String normalize(@Nonnull String url) {
+    int end = url.length();
+    while (end > 0 && url.charAt(end - 1) == '/') {
+      end--;
+    }
+    String normalized = url.substring(0, end);
+    int schemeEnd = normalized.indexOf("://");
+    if (schemeEnd < 0) {
+      return normalized;
+    }
+    int authorityEnd = normalized.indexOf('/', schemeEnd + 3);
+    if (authorityEnd < 0) {
+      authorityEnd = normalized.length();
+    }
+    return normalized.substring(0, authorityEnd).toLowerCase(Locale.ROOT)
+        + normalized.substring(authorityEnd);
+  }
+
   /**
    * Resolves url of Identity Provider by issuer name in accordance with configured rules.
    *
@@ -84,11 +180,85 @@ final class IdentityProviderUrlResolver {
    * @throws IssuerNotTrustedException in case of url cannot be resolved by rules
    */
   String resolveUrl(@Nonnull String url) throws IssuerNotTrustedException {
-    Address trusted = whitelist.stream()
-        .filter(address -> url.equals(address.external()) || url.equals(address.internal()))
-        .findFirst()
-        .orElseThrow(() -> new IssuerNotTrustedException(url));
-    return trusted.internal() != null ? trusted.internal() : trusted.external();
+    return resolve(url).url();
+  }
+
+  /**
+   * Resolves Identity Provider by issuer name in accordance with configured rules.
+   *
+   * @param url url of Identity Provider to resolve
+   * @return trusted url and validation profile of Identity Provider
+   * @throws IssuerNotTrustedException in case of url cannot be resolved by rules
+   */
+  @Nonnull
+  ResolvedIssuer resolve(@Nonnull String url) throws IssuerNotTrustedException {
+    String normalizedUrl = normalize(url);
+    ResolvedIssuer issuer = issuersByUrl.get(normalizedUrl);
+    if (issuer != null) {
+      return issuer;
+    }
+    if (patterns.isEmpty()) {
+      throw new IssuerNotTrustedException(url);
+    }
+    issuer = resolvedByPattern.getIfPresent(normalizedUrl);
+    if (issuer != null) {
+      return issuer;
+    }
+    for (PatternAddress pattern : patterns) {
+      issuer = pattern.resolve(normalizedUrl);
+      if (issuer != null) {
+        resolvedByPattern.put(normalizedUrl, issuer);
+        return issuer;
+      }
+    }
+    throw new IssuerNotTrustedException(url);
+  }
+
+  /**
+   * Returns trusted urls of all Identity Providers from whitelist. Wildcard entries are not
+   * included, because their urls are not known in advance.
+   *
+   * @return distinct trusted urls
+   */
+  @Nonnull
+  List<String> trustedUrls() {
+    return trustedUrls;
+  }
+
+  /**
+   * Returns distinct profiles of all whitelist entries including default profile.
+   *
+   * @return validation profiles
+   */
+  @Nonnull
+  List<IssuerProfile> profiles() {
+    return profiles;
+  }
+
+  /**
+   * Trusted url of Identity Provider together with its validation profile.
+   */
+  @Immutable
+  static final class ResolvedIssuer {
+    @Nonnull
+    private final String url;
+    @Nonnull
+    private final IssuerProfile profile;
+
+    private ResolvedIssuer(@Nonnull String url, @Nonnull IssuerProfile profile) {
+      this.url = url;
+      this.profile = profile;
+    }
+
+    @Nonnull
+    String url() {
+      return url;
+    }
+
+    @Nonnull
+    IssuerProfile profile() {
+      return profile;
+    }
   }
 
   @ThreadSafe
@@ -96,12 +266,16 @@ final class IdentityProviderUrlResolver {
 
     @Nullable
     private final String internal;
-    @Nonnull
+    @Nullable
     private final String external;
+    @Nonnull
+    private final Map<String, Object> fields;
 
-    private Address(@Nullable String internal, @Nonnull String external) {
+    private Address(@Nullable String internal, @Nullable String external,
+        @Nonnull Map<String, Object> fields) {
       this.internal = internal;
       this.external = external;
+      this.fields = fields;
     }
 
     @Nullable
@@ -109,11 +283,38 @@ final class IdentityProviderUrlResolver {
       return internal;
     }
 
-    @Nonnull
+    @Nullable
     private String external() {
       return external;
     }
 
+    @Nonnull
+    private Map<String, Object> fields() {
+      return fields;
+    }
+
+    @Nonnull
+    private String trustedUrl() {
+      return internal != null ? internal : external;
+    }
+
+    @Nonnull
+    private List<String> urls() {
+      List<String> urls = new ArrayList<>(2);
+      if (external != null) {
+        urls.add(external);
+      }
+      if (internal != null) {
+        urls.add(internal);
+      }
+      return urls;
+    }
+
+    private boolean isPattern() {
+      return (external != null && external.contains(WILDCARD))
+          || (internal != null && internal.contains(WILDCARD));
+    }
+
     @Override
     public String toString() {
       return "Address{"
@@ -122,4 +323,69 @@ final class IdentityProviderUrlResolver {
               + '}';
     }
   }
+
+  /**
+   * Whitelist entry with wildcards compiled to regular expression.
+   */
+  @Immutable
+  private static final class PatternAddress {
+
+    @Nonnull
+    private final Pattern pattern;
+    @Nonnull
+    private final String[] trustedUrlParts;
+    @Nonnull
+    private final IssuerProfile profile;
+
+    private PatternAddress(@Nonnull Pattern pattern, @Nonnull String[] trustedUrlParts,
+        @Nonnull IssuerProfile profile) {
+      this.pattern = pattern;
+      this.trustedUrlParts = trustedUrlParts;
+      this.profile = profile;
+    }
+
+    @Nonnull
+    private static List<PatternAddress> compile(@Nonnull Address address,
+        @Nonnull IssuerProfile profile) {
+      String[] trustedUrlParts = split(address.trustedUrl());
+      List<PatternAddress> result = new ArrayList<>(2);
+      for (String url : address.urls()) {
+        String[] parts = split(normalize(url));
+        if (parts.length != trustedUrlParts.length) {
+          throw new IllegalArgumentException(
+              "Internal and external urls must have the same number of wildcards: " + address);
+        }
+        StringBuilder regex = new StringBuilder(Pattern.quote(parts[0]));
+        for (int i = 1; i < parts.length; i++) {
+          regex.append(SEGMENT_PATTERN).append(Pattern.quote(parts[i]));
+        }
+        result.add(
+            new PatternAddress(Pattern.compile(regex.toString()), trustedUrlParts, profile));
+      }
+      LOGGER.debug("Whitelist entry {} is compiled to patterns", address);
+      return result;
+    }
+
+    @Nonnull
+    private static String[] split(@Nonnull String url) {
+      return url.split(Pattern.quote(WILDCARD), -1);
+    }
+
+    @Nullable
+    private ResolvedIssuer resolve(@Nonnull String normalizedUrl) {
+      Matcher matcher = pattern.matcher(normalizedUrl);
+      if (!matcher.matches()) {
+        return null;
+      }
+      StringBuilder trustedUrl = new StringBuilder(trustedUrlParts[0]);
+      for (int i = 1; i < trustedUrlParts.length; i++) {
+        String segment = matcher.group(i);
+        if (".".equals(segment) || "..".equals(segment)) {
+          return null;
+        }
+        trustedUrl.append(segment).append(trustedUrlParts[i]);
+      }
+      return new ResolvedIssuer(trustedUrl.toString(), profile);
+    }
+  }
 }
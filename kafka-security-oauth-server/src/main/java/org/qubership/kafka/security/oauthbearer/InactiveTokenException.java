@@ -0,0 +1,42 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Exception for case when introspection endpoint of Identity Provider reports that token is not
+ * active.
+ */
+final class InactiveTokenException extends Exception {
+
+  /**
+   * Default constructor for exception.
+   */
+  InactiveTokenException() {
+    this("Token is not active according to introspection endpoint");
+  }
+
+  /**
+   * Creates exception for active token which still cannot be accepted.
+   *
+   * @param message failure description
+   */
+  InactiveTokenException(@Nonnull String message) {
+    super(message);
+  }
+}
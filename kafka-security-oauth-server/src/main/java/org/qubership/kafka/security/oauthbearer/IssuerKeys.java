@@ -0,0 +1,225 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.crypto.factories.DefaultJWSVerifierFactory;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSetCacheRefreshEvaluator;
+import com.nimbusds.jose.jwk.source.JWKSetSource;
+import com.nimbusds.jose.proc.JWSVerifierFactory;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.ConfigurableJWTProcessor;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import com.nimbusds.jwt.proc.JWTClaimsSetVerifier;
+import java.io.IOException;
+import java.security.Key;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Verification key material of one trusted Identity Provider. Holds JWK set source of the issuer,
+ * {@link KeyTable} built from the last obtained JWK set and JWT processors for every algorithm
+ * used by tokens of the issuer. Processors are created once and reuse prebuilt verifiers until
+ * JWK set of the issuer changes.
+ */
+@ThreadSafe
+final class IssuerKeys {
+  private static final Logger LOGGER = LoggerFactory.getLogger(IssuerKeys.class);
+
+  @Nonnull
+  private final String identityProviderUrl;
+  @Nonnull
+  private final JWKSetSource<SecurityContext> source;
+  @Nonnull
+  private final JWTClaimsSetVerifier<SecurityContext> claimsVerifier;
+  @Nonnull
+  private final Runnable rotationListener;
+  @Nonnull
+  private final UnknownKeyGuard unknownKeyGuard;
+  @Nonnull
+  private final ConcurrentMap<JWSAlgorithm, ConfigurableJWTProcessor<SecurityContext>> processors =
+      new ConcurrentHashMap<>();
+  @Nonnull
+  private final JWSVerifierFactory verifierFactory = new TableVerifierFactory();
+  @Nonnull
+  private volatile KeyTable keyTable = KeyTable.EMPTY;
+  private volatile long updatedAt;
+
+  /**
+   * Creates key material of Identity Provider.
+   *
+   * @param identityProviderUrl trusted url of Identity Provider
+   * @param source source of JWK set of Identity Provider
+   * @param claimsVerifier verifier of token claims
+   * @param rotationListener listener which is called when JWK set of Identity Provider changes
+   * @param unknownKeyGuard guard which limits JWK set refetches for unknown keys
+   */
+  IssuerKeys(@Nonnull String identityProviderUrl,
+      @Nonnull JWKSetSource<SecurityContext> source,
+      @Nonnull JWTClaimsSetVerifier<SecurityContext> claimsVerifier,
+      @Nonnull Runnable rotationListener,
+      @Nonnull UnknownKeyGuard unknownKeyGuard) {
+    this.identityProviderUrl = identityProviderUrl;
+    this.source = source;
+    this.claimsVerifier = claimsVerifier;
+    this.rotationListener = rotationListener;
+    this.unknownKeyGuard = unknownKeyGuard;
+  }
+
+  /**
+   * Returns JWT processor which accepts tokens signed with the given algorithm only.
+   *
+   * @param algorithm expected JWS algorithm
+   * @return shared processor
+   */
+  @Nonnull
+  ConfigurableJWTProcessor<SecurityContext> processor(@Nonnull JWSAlgorithm algorithm) {
+    return processors.computeIfAbsent(algorithm, this::createProcessor);
+  }
+
+  /**
+   * Loads JWK set of the issuer and builds key table for it in advance.
+   *
+   * @throws KeySourceException if JWK set cannot be loaded
+   */
+  void warmUp() throws KeySourceException {
+    keyTable(JWKSetCacheRefreshEvaluator.noRefresh());
+  }
+
+  /**
+   * Requests reload of JWK set of the issuer. Sources which refresh JWK set in background only
+   * schedule reload, so new keys are picked up by one of the next validations.
+   *
+   * @throws KeySourceException if JWK set cannot be loaded
+   */
+  void refresh() throws KeySourceException {
+    keyTable(JWKSetCacheRefreshEvaluator.forceRefresh());
+  }
+
+  /**
+   * Returns IDs of keys which are currently used for verification.
+   *
+   * @return key IDs, keys without ID are skipped
+   */
+  @Nonnull
+  List<String> keyIds() {
+    return keyTable.jwkSet().getKeys().stream()
+        .map(JWK::getKeyID)
+        .filter(Objects::nonNull)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Returns time when key table has been rebuilt from obtained JWK set last time.
+   *
+   * @return time in milliseconds, {@code 0} if JWK set has not been obtained yet
+   */
+  long updatedAt() {
+    return updatedAt;
+  }
+
+  @Nonnull
+  private ConfigurableJWTProcessor<SecurityContext> createProcessor(
+      @Nonnull JWSAlgorithm algorithm) {
+    ConfigurableJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+    processor.setJWSKeySelector((header, context) -> selectKeys(algorithm, header));
+    processor.setJWSVerifierFactory(verifierFactory);
+    processor.setJWTClaimsSetVerifier(claimsVerifier);
+    return processor;
+  }
+
+  @Nonnull
+  private List<Key> selectKeys(@Nonnull JWSAlgorithm algorithm, @Nonnull JWSHeader header)
+      throws KeySourceException {
+    if (!algorithm.equals(header.getAlgorithm())) {
+      return Collections.emptyList();
+    }
+    KeyTable table = keyTable(JWKSetCacheRefreshEvaluator.noRefresh());
+    List<Key> keys = table.keys(header);
+    if (keys.isEmpty()
+        && unknownKeyGuard.tryRefetch(header.getKeyID(), System.currentTimeMillis())) {
+      // Key may be rotated, so JWK set reload is requested if it is not updated by another thread
+      table = keyTable(JWKSetCacheRefreshEvaluator.referenceComparison(table.jwkSet()));
+      keys = table.keys(header);
+    }
+    return keys;
+  }
+
+  @Nonnull
+  private KeyTable keyTable(@Nonnull JWKSetCacheRefreshEvaluator refreshEvaluator)
+      throws KeySourceException {
+    JWKSet jwkSet = source.getJWKSet(refreshEvaluator, System.currentTimeMillis(), null);
+    KeyTable table = keyTable;
+    if (table.jwkSet() == jwkSet) {
+      return table;
+    }
+    synchronized (this) {
+      table = keyTable;
+      if (table.jwkSet() != jwkSet) {
+        KeyTable previous = table;
+        table = previous.update(jwkSet);
+        keyTable = table;
+        updatedAt = System.currentTimeMillis();
+        if (!previous.hasSameKeys(jwkSet)) {
+          unknownKeyGuard.reset();
+          if (!previous.isEmpty()) {
+            LOGGER.info("JWKS of Identity Provider {} is rotated", identityProviderUrl);
+            rotationListener.run();
+          }
+        }
+      }
+    }
+    return table;
+  }
+
+  /**
+   * Releases JWK set source of the issuer.
+   */
+  void close() {
+    try {
+      source.close();
+    } catch (IOException | RuntimeException e) {
+      LOGGER.warn("Cannot close JWK set source of Identity Provider {}", identityProviderUrl, e);
+    }
+  }
+
+  /**
+   * Factory which returns verifiers prebuilt by {@link KeyTable}. Default factory is used only if
+   * key table has been replaced between key selection and signature verification.
+   */
+  private final class TableVerifierFactory extends DefaultJWSVerifierFactory {
+    @Override
+    public JWSVerifier createJWSVerifier(JWSHeader header, Key key) throws JOSEException {
+      JWSVerifier verifier = keyTable.verifier(key);
+      return verifier != null ? verifier : super.createJWSVerifier(header, key);
+    }
+  }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTClaimsVerifier;
+import com.nimbusds.jwt.proc.JWTClaimsSetVerifier;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Validation settings of Identity Provider: roles path, clock skew, expected audience, allowed
+ * signature algorithms, claims policy and source of public keys. Settings are compiled once, when
+ * profile is created.
+ *
+ * <p>Handler options define the default profile. Whitelist entry can override any of the settings
+ * by fields with the same names as options, for example
+ * {@code {'external': 'https://vault/v1/identity/oidc', 'tokenRolesPath': 'groups',
+ * 'audience': ['kafka']}}.</p>
+ */
+@Immutable
+final class IssuerProfile {
+
+  static final String TOKEN_ROLES_PATH = "tokenRolesPath";
+  static final String CLOCK_SKEW = "clockSkew";
+  static final String AUDIENCE = "audience";
+  static final String ALLOWED_ALGORITHMS = "allowedAlgorithms";
+  static final String CLAIMS_POLICY = "claimsPolicy";
+  static final String JWK_SOURCE_TYPE = "jwkSourceType";
+  static final String JWKS_SOURCE_TYPE = "jwks";
+  static final String KEYSTORE_SOURCE_TYPE = "keystore";
+
+  private static final String AUDIENCE_CLAIM = "aud";
+
+  static final IssuerProfile DEFAULT =
+      new IssuerProfile("", 10, null, null, null, 0, JWKS_SOURCE_TYPE);
+
+  @Nonnull
+  private final String tokenRolesPath;
+  private final int clockSkew;
+  @Nullable
+  private final Set<String> audience;
+  @Nullable
+  private final String allowedAlgorithms;
+  @Nullable
+  private final String claimsPolicy;
+  private final int maxTokenSize;
+  @Nonnull
+  private final String jwkSourceType;
+  @Nonnull
+  private final TokenRolesExtractor rolesExtractor;
+  @Nonnull
+  private final TokenPrecheck precheck;
+  @Nonnull
+  private final JWTClaimsSetVerifier<SecurityContext> claimsVerifier;
+  @Nonnull
+  private final ClaimsPolicy compiledClaimsPolicy;
+
+  /**
+   * Creates and compiles profile.
+   *
+   * @param tokenRolesPath comma-separated list of claim paths with roles
+   * @param clockSkew maximum clock skew in seconds
+   * @param audience accepted audience, any audience is accepted if it is {@code null}
+   * @param allowedAlgorithms comma-separated list of allowed signature algorithms
+   * @param claimsPolicy rules of {@link ClaimsPolicy}
+   * @param maxTokenSize maximum length of raw token, {@code 0} disables check
+   * @param jwkSourceType source of public keys, either {@code jwks} or {@code keystore}
+   */
+  IssuerProfile(@Nonnull String tokenRolesPath, int clockSkew, @Nullable Set<String> audience,
+      @Nullable String allowedAlgorithms, @Nullable String claimsPolicy, int maxTokenSize,
+      @Nonnull String jwkSourceType) {
+    this.tokenRolesPath = tokenRolesPath;
+    this.clockSkew = clockSkew;
+    this.audience = audience;
+    this.allowedAlgorithms = allowedAlgorithms;
+    this.claimsPolicy = claimsPolicy;
+    this.maxTokenSize = maxTokenSize;
+    this.jwkSourceType = jwkSourceType;
+    this.rolesExtractor = TokenRolesExtractor.compile(tokenRolesPath);
+    this.precheck = new TokenPrecheck(allowedAlgorithms, maxTokenSize, clockSkew);
+    // Audience is checked by checkClaims before signature verification
+    DefaultJWTClaimsVerifier<SecurityContext> verifier =
+        new DefaultJWTClaimsVerifier<>(null, null, null, null);
+    verifier.setMaxClockSkew(clockSkew);
+    this.claimsVerifier = verifier;
+    this.compiledClaimsPolicy = ClaimsPolicy.compile(claimsPolicy);
+  }
+
+  /**
+   * Creates profile with settings of whitelist entry, settings which are absent in entry are
+   * taken from this profile.
+   *
+   * @param entry whitelist entry
+   * @return new profile or this profile if entry does not override any setting
+   */
+  @Nonnull
+  IssuerProfile override(@Nonnull Map<String, Object> entry) {
+    if (!entry.containsKey(TOKEN_ROLES_PATH) && !entry.containsKey(CLOCK_SKEW)
+        && !entry.containsKey(AUDIENCE) && !entry.containsKey(ALLOWED_ALGORITHMS)
+        && !entry.containsKey(CLAIMS_POLICY) && !entry.containsKey(JWK_SOURCE_TYPE)) {
+      return this;
+    }
+    Object clockSkewValue = entry.get(CLOCK_SKEW);
+    return new IssuerProfile(
+        stringOrDefault(entry.get(TOKEN_ROLES_PATH), tokenRolesPath),
+        clockSkewValue == null ? clockSkew : Integer.parseInt(clockSkewValue.toString()),
+        entry.containsKey(AUDIENCE) ? parseAudience(entry.get(AUDIENCE)) : audience,
+        stringOrDefault(entry.get(ALLOWED_ALGORITHMS), allowedAlgorithms),
+        stringOrDefault(entry.get(CLAIMS_POLICY), claimsPolicy),
+        maxTokenSize,
+        stringOrDefault(entry.get(JWK_SOURCE_TYPE), jwkSourceType));
+  }
+
+  private static String stringOrDefault(@Nullable Object value, String defaultValue) {
+    return value == null ? defaultValue : value.toString();
+  }
+
+  /**
+   * Parses accepted audience which is either JSON array or comma-separated string.
+   *
+   * @param value audience value
+   * @return set of accepted audience or {@code null} if audience is not set
+   */
+  @Nullable
+  static Set<String> parseAudience(@Nullable Object value) {
+    Set<String> audience = new LinkedHashSet<>();
+    if (value instanceof Collection) {
+      for (Object item : (Collection<?>) value) {
+        audience.add(item.toString().trim());
+      }
+    } else if (value != null) {
+      for (String item : value.toString().split(",")) {
+        audience.add(item.trim());
+      }
+    }
+    audience.remove("");
+    return audience.isEmpty() ? null : Collections.unmodifiableSet(audience);
+  }
+
+  @Nonnull
+  TokenRolesExtractor rolesExtractor() {
+    return rolesExtractor;
+  }
+
+  @Nonnull
+  TokenPrecheck precheck() {
+    return precheck;
+  }
+
+  @Nonnull
+  JWTClaimsSetVerifier<SecurityContext> claimsVerifier() {
+    return claimsVerifier;
+  }
+
+  /**
+   * Checks accepted audience and claims policy. Checks do not require cryptography, so they are
+   * performed before signature verification.
+   *
+   * @param claims token claims
+   * @throws TokenPrecheckException on {@link ValidationStage#CLAIMS} stage if claims are rejected
+   */
+  void checkClaims(@Nonnull Map<String, Object> claims) throws TokenPrecheckException {
+    if (audience != null
+        && Collections.disjoint(audience, audienceOf(claims.get(AUDIENCE_CLAIM)))) {
+      throw new TokenPrecheckException(ValidationStage.CLAIMS,
+          "Token audience is not one of " + audience, false);
+    }
+    compiledClaimsPolicy.check(claims);
+  }
+
+  @Nonnull
+  private static Collection<?> audienceOf(@Nullable Object value) {
+    if (value instanceof Collection) {
+      return (Collection<?>) value;
+    }
+    return value != null ? Collections.singleton(value) : Collections.emptySet();
+  }
+
+  /**
+   * Checks whether profile has the same settings as another profile, so keys loaded and tokens
+   * validated with one of them are valid for another.
+   *
+   * @param other profile to compare with
+   * @return {@code true} if all settings are equal
+   */
+  boolean hasSameSettings(@Nonnull IssuerProfile other) {
+    return tokenRolesPath.equals(other.tokenRolesPath)
+        && clockSkew == other.clockSkew
+        && Objects.equals(audience, other.audience)
+        && Objects.equals(allowedAlgorithms, other.allowedAlgorithms)
+        && Objects.equals(claimsPolicy, other.claimsPolicy)
+        && maxTokenSize == other.maxTokenSize
+        && jwkSourceType.equalsIgnoreCase(other.jwkSourceType);
+  }
+
+  boolean usesKeyStore() {
+    return KEYSTORE_SOURCE_TYPE.equalsIgnoreCase(jwkSourceType);
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.util.JSONObjectUtils;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Local storage of the last JWKS and JWKS endpoint of every trusted Identity Provider. It allows
+ * to validate tokens right after broker restart without requests to Identity Provider.
+ *
+ * <p>Every Identity Provider has its own file, which is replaced atomically, so readers never see
+ * partially written snapshot. Only public keys are stored.</p>
+ */
+@ThreadSafe
+final class JwksSnapshotStore {
+  private static final Logger LOGGER = LoggerFactory.getLogger(JwksSnapshotStore.class);
+
+  private static final String ISSUER = "issuer";
+  private static final String JWKS_URI = "jwks_uri";
+  private static final String JWKS = "jwks";
+  private static final String SAVED_AT = "saved_at";
+  private static final String SNAPSHOT_FILE_SUFFIX = ".json";
+
+  @Nonnull
+  private final Path directory;
+
+  JwksSnapshotStore(@Nonnull Path directory) {
+    this.directory = directory;
+  }
+
+  /**
+   * Reads snapshot of Identity Provider.
+   *
+   * @param identityProviderUrl trusted url of Identity Provider
+   * @return snapshot or {@code null} if there is no valid snapshot
+   */
+  @Nullable
+  Snapshot read(@Nonnull String identityProviderUrl) {
+    Path file = snapshotFile(identityProviderUrl);
+    try {
+      String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+      Map<String, Object> json = JSONObjectUtils.parse(content);
+      if (!identityProviderUrl.equals(JSONObjectUtils.getString(json, ISSUER))) {
+        LOGGER.warn("Snapshot {} belongs to another Identity Provider", file);
+        return null;
+      }
+      String jwksUri = JSONObjectUtils.getString(json, JWKS_URI);
+      Map<String, Object> jwks = JSONObjectUtils.getJSONObject(json, JWKS);
+      if (jwksUri == null || jwks == null) {
+        LOGGER.warn("Snapshot {} does not contain JWKS", file);
+        return null;
+      }
+      return new Snapshot(jwksUri, JWKSet.parse(jwks), JSONObjectUtils.getLong(json, SAVED_AT));
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException | ParseException | RuntimeException e) {
+      LOGGER.warn("Cannot read JWKS snapshot {}", file, e);
+      return null;
+    }
+  }
+
+  /**
+   * Replaces snapshot of Identity Provider.
+   *
+   * @param identityProviderUrl trusted url of Identity Provider
+   * @param jwksUri JWKS endpoint of Identity Provider
+   * @param jwkSet JWKS of Identity Provider
+   */
+  void save(@Nonnull String identityProviderUrl, @Nonnull String jwksUri,
+      @Nonnull JWKSet jwkSet) {
+    Map<String, Object> json = new LinkedHashMap<>();
+    json.put(ISSUER, identityProviderUrl);
+    json.put(JWKS_URI, jwksUri);
+    json.put(JWKS, jwkSet.toJSONObject(true));
+    json.put(SAVED_AT, System.currentTimeMillis());
+    Path file = snapshotFile(identityProviderUrl);
+    try {
+      Files.createDirectories(directory);
+      Path temporaryFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+      try {
+        Files.write(temporaryFile,
+            JSONObjectUtils.toJSONString(json).getBytes(StandardCharsets.UTF_8));
+        Files.move(temporaryFile, file,
+            StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } finally {
+        Files.deleteIfExists(temporaryFile);
+      }
+      LOGGER.debug("JWKS snapshot of Identity Provider {} is saved to {}",
+          identityProviderUrl, file);
+    } catch (IOException | RuntimeException e) {
+      LOGGER.warn("Cannot save JWKS snapshot of Identity Provider {}", identityProviderUrl, e);
+    }
+  }
+
+  @Nonnull
+  private Path snapshotFile(@Nonnull String identityProviderUrl) {
+    return directory.resolve(TokenDigest.of(identityProviderUrl) + SNAPSHOT_FILE_SUFFIX);
+  }
+
+  @Immutable
+  static final class Snapshot {
+    @Nonnull
+    private final String jwksUri;
+    @Nonnull
+    private final JWKSet jwkSet;
+    private final long savedAt;
+
+    private Snapshot(@Nonnull String jwksUri, @Nonnull JWKSet jwkSet, long savedAt) {
+      this.jwksUri = jwksUri;
+      this.jwkSet = jwkSet;
+      this.savedAt = savedAt;
+    }
+
+    @Nonnull
+    String jwksUri() {
+      return jwksUri;
+    }
+
+    @Nonnull
+    JWKSet jwkSet() {
+      return jwkSet;
+    }
+
+    long savedAt() {
+      return savedAt;
+    }
+  }
+}
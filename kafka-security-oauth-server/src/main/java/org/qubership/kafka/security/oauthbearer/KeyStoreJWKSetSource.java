@@ -0,0 +1,173 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSetCacheRefreshEvaluator;
+import com.nimbusds.jose.jwk.source.JWKSetSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * JWK set source which is loaded from keystore file and shared by all Identity Providers.
+ *
+ * <p>Keystore is loaded out of token validation path and is reloaded when modification time or
+ * size of the file changes, for example when mounted Kubernetes secret is rotated. New JWK set
+ * replaces previous one only if the whole keystore has been loaded successfully, otherwise previous
+ * keys are kept and load is retried on the next check.</p>
+ */
+@ThreadSafe
+final class KeyStoreJWKSetSource implements JWKSetSource<SecurityContext> {
+  private static final Logger LOGGER = LoggerFactory.getLogger(KeyStoreJWKSetSource.class);
+
+  @Nonnull
+  private final Path path;
+  @Nonnull
+  private final String type;
+  @Nullable
+  private final char[] password;
+  @Nullable
+  private volatile JWKSet jwkSet;
+  @Nullable
+  private volatile Exception loadFailure;
+  @GuardedBy("this")
+  @Nullable
+  private FileTime lastModifiedTime;
+  @GuardedBy("this")
+  private long lastSize;
+  @GuardedBy("this")
+  @Nullable
+  private ScheduledFuture<?> watcher;
+
+  /**
+   * Creates source, keystore is not loaded until {@link #reload()} is called.
+   *
+   * @param path path to keystore file
+   * @param type keystore type
+   * @param password keystore password
+   */
+  KeyStoreJWKSetSource(@Nonnull Path path, @Nonnull String type, @Nullable String password) {
+    this.path = path;
+    this.type = type;
+    this.password = password != null ? password.toCharArray() : null;
+  }
+
+  /**
+   * Loads keystore if it has been changed since the last successful load.
+   *
+   * @return {@code true} if keys have been loaded
+   * @throws IOException if keystore cannot be read
+   * @throws GeneralSecurityException if keystore cannot be decoded
+   */
+  synchronized boolean reload() throws IOException, GeneralSecurityException {
+    BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+    if (jwkSet != null && attributes.lastModifiedTime().equals(lastModifiedTime)
+        && attributes.size() == lastSize) {
+      return false;
+    }
+    try {
+      KeyStore keyStore = KeyStore.getInstance(type);
+      try (InputStream inputStream = Files.newInputStream(path)) {
+        keyStore.load(inputStream, password);
+      }
+      JWKSet loaded = JWKSet.load(keyStore, null);
+      jwkSet = loaded;
+      loadFailure = null;
+      lastModifiedTime = attributes.lastModifiedTime();
+      lastSize = attributes.size();
+      LOGGER.info("{} public keys are loaded from keystore {}", loaded.getKeys().size(), path);
+      return true;
+    } catch (IOException | GeneralSecurityException e) {
+      loadFailure = e;
+      throw e;
+    }
+  }
+
+  /**
+   * Starts periodic check of keystore file.
+   *
+   * @param executor executor for checks
+   * @param interval interval in milliseconds between checks
+   */
+  synchronized void watch(@Nonnull ScheduledExecutorService executor, long interval) {
+    watcher = executor.scheduleWithFixedDelay(
+        this::reloadIfChanged, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  private void reloadIfChanged() {
+    try {
+      reload();
+    } catch (IOException | GeneralSecurityException | RuntimeException e) {
+      LOGGER.warn("Cannot reload keystore {}, previously loaded keys are used", path, e);
+    }
+  }
+
+  /**
+   * Checks that keys have been loaded from keystore without any I/O.
+   *
+   * @throws IOException if keystore has never been loaded successfully
+   */
+  void ensureLoaded() throws IOException {
+    if (jwkSet == null) {
+      throw new IOException("Public keys are not loaded from keystore " + path, loadFailure);
+    }
+  }
+
+  @Override
+  public JWKSet getJWKSet(JWKSetCacheRefreshEvaluator refreshEvaluator, long currentTime,
+      SecurityContext context) throws KeySourceException {
+    JWKSet current = jwkSet;
+    if (current == null) {
+      throw new KeySourceException("Public keys are not loaded from keystore " + path);
+    }
+    return current;
+  }
+
+  /**
+   * Stops periodic check of keystore file.
+   */
+  synchronized void unwatch() {
+    if (watcher != null) {
+      watcher.cancel(false);
+      watcher = null;
+    }
+  }
+
+  /**
+   * Does nothing, because source is shared by all Identity Providers, use {@link #unwatch()}.
+   */
+  @Override
+  public void close() {
+  }
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyType;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.OctetSequenceKey;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.util.Base64URL;
+import java.security.Key;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Immutable index of signature verification keys of one JWK set. Java keys and {@link JWSVerifier
+ * verifiers} are created once when the table is built, so token verification does not convert JWKs
+ * on every call.
+ *
+ * <p>Key IDs are also indexed in lower case, because keystore stores key ID as alias of
+ * certificate and alias can be in lower case only.</p>
+ */
+@Immutable
+final class KeyTable {
+  private static final Logger LOGGER = LoggerFactory.getLogger(KeyTable.class);
+
+  static final KeyTable EMPTY = new KeyTable(new JWKSet());
+
+  @Nonnull
+  private final JWKSet jwkSet;
+  @Nonnull
+  private final List<Entry> entries;
+  @Nonnull
+  private final Map<String, List<Entry>> entriesByKid;
+  @Nonnull
+  private final Map<Key, JWSVerifier> verifiers;
+
+  KeyTable(@Nonnull JWKSet jwkSet) {
+    this.jwkSet = jwkSet;
+    List<Entry> entries = new ArrayList<>();
+    Map<String, List<Entry>> entriesByKid = new HashMap<>();
+    Map<Key, JWSVerifier> verifiers = new IdentityHashMap<>();
+    for (JWK jwk : jwkSet.getKeys()) {
+      if (jwk.getKeyUse() != null && !KeyUse.SIGNATURE.equals(jwk.getKeyUse())) {
+        continue;
+      }
+      Entry entry = createEntry(jwk);
+      if (entry == null) {
+        continue;
+      }
+      entries.add(entry);
+      verifiers.put(entry.key, entry.verifier);
+      String kid = jwk.getKeyID();
+      if (kid != null) {
+        entriesByKid.computeIfAbsent(kid, k -> new ArrayList<>()).add(entry);
+        String lowerCaseKid = kid.toLowerCase();
+        if (!lowerCaseKid.equals(kid)) {
+          entriesByKid.computeIfAbsent(lowerCaseKid, k -> new ArrayList<>()).add(entry);
+        }
+      }
+    }
+    this.entries = entries;
+    this.entriesByKid = entriesByKid;
+    this.verifiers = verifiers;
+  }
+
+  private KeyTable(@Nonnull JWKSet jwkSet, @Nonnull KeyTable table) {
+    this.jwkSet = jwkSet;
+    this.entries = table.entries;
+    this.entriesByKid = table.entriesByKid;
+    this.verifiers = table.verifiers;
+  }
+
+  /**
+   * Returns table for the given JWK set. Keys and verifiers of this table are reused if the JWK set
+   * contains the same keys, for example when unchanged JWKS is fetched again.
+   *
+   * @param jwkSet new JWK set
+   * @return key table for the JWK set
+   */
+  @Nonnull
+  KeyTable update(@Nonnull JWKSet jwkSet) {
+    if (jwkSet == this.jwkSet) {
+      return this;
+    }
+    return hasSameKeys(jwkSet) ? new KeyTable(jwkSet, this) : new KeyTable(jwkSet);
+  }
+
+  /**
+   * Compares keys by their JSON representation, because keys loaded from keystore are bound to
+   * keystore instance and are never equal to keys loaded again from the same file.
+   *
+   * @param jwkSet JWK set to compare with
+   * @return {@code true} if JWK set contains the same keys
+   */
+  boolean hasSameKeys(@Nonnull JWKSet jwkSet) {
+    List<JWK> keys = this.jwkSet.getKeys();
+    List<JWK> otherKeys = jwkSet.getKeys();
+    if (keys.size() != otherKeys.size()) {
+      return false;
+    }
+    for (int i = 0; i < keys.size(); i++) {
+      if (!keys.get(i).toJSONObject().equals(otherKeys.get(i).toJSONObject())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Nullable
+  private static Entry createEntry(@Nonnull JWK jwk) {
+    try {
+      if (jwk instanceof RSAKey) {
+        RSAKey rsaKey = (RSAKey) jwk;
+        return new Entry(jwk, rsaKey.toRSAPublicKey(), new RSASSAVerifier(rsaKey));
+      } else if (jwk instanceof ECKey) {
+        ECKey ecKey = (ECKey) jwk;
+        return new Entry(jwk, ecKey.toECPublicKey(), new ECDSAVerifier(ecKey));
+      } else if (jwk instanceof OctetSequenceKey) {
+        OctetSequenceKey octKey = (OctetSequenceKey) jwk;
+        return new Entry(jwk, octKey.toSecretKey(), new MACVerifier(octKey));
+      }
+      LOGGER.debug("Key {} of type {} is not supported for signature verification",
+          jwk.getKeyID(), jwk.getKeyType());
+    } catch (JOSEException e) {
+      LOGGER.warn("Key {} cannot be used for signature verification", jwk.getKeyID(), e);
+    }
+    return null;
+  }
+
+  @Nonnull
+  JWKSet jwkSet() {
+    return jwkSet;
+  }
+
+  boolean isEmpty() {
+    return entries.isEmpty();
+  }
+
+  /**
+   * Selects keys which can verify signature of JWS object with the given header.
+   *
+   * @param header JWS header
+   * @return list of candidate keys, may be empty
+   */
+  @Nonnull
+  List<Key> keys(@Nonnull JWSHeader header) {
+    List<Entry> candidates = entries;
+    String kid = header.getKeyID();
+    if (kid != null) {
+      candidates = entriesByKid.get(kid);
+      if (candidates == null) {
+        candidates = entriesByKid.getOrDefault(kid.toLowerCase(), Collections.emptyList());
+      }
+    }
+    JWSAlgorithm algorithm = header.getAlgorithm();
+    List<Key> keys = new ArrayList<>(candidates.size());
+    for (Entry entry : candidates) {
+      if (entry.matches(algorithm, header.getX509CertSHA256Thumbprint())) {
+        keys.add(entry.key);
+      }
+    }
+    return keys;
+  }
+
+  /**
+   * Returns prebuilt verifier for key previously selected from this table.
+   *
+   * @param key selected key
+   * @return verifier or {@code null} if key does not belong to this table
+   */
+  @Nullable
+  JWSVerifier verifier(@Nonnull Key key) {
+    return verifiers.get(key);
+  }
+
+  @Immutable
+  private static final class Entry {
+    @Nonnull
+    private final JWK jwk;
+    @Nonnull
+    private final Key key;
+    @Nonnull
+    private final JWSVerifier verifier;
+
+    private Entry(@Nonnull JWK jwk, @Nonnull Key key, @Nonnull JWSVerifier verifier) {
+      this.jwk = jwk;
+      this.key = key;
+      this.verifier = verifier;
+    }
+
+    private boolean matches(@Nonnull JWSAlgorithm algorithm, @Nullable Base64URL x5t256) {
+      if (!jwk.getKeyType().equals(KeyType.forAlgorithm(algorithm))) {
+        return false;
+      }
+      if (jwk.getAlgorithm() != null && !jwk.getAlgorithm().equals(algorithm)) {
+        return false;
+      }
+      if (jwk instanceof ECKey) {
+        Set<Curve> curves = Curve.forJWSAlgorithm(algorithm);
+        if (curves == null || !curves.contains(((ECKey) jwk).getCurve())) {
+          return false;
+        }
+      }
+      return x5t256 == null || x5t256.equals(jwk.getX509CertSHA256Thumbprint());
+    }
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Opaque token which has been validated by introspection endpoint of Identity Provider.
+ *
+ * @see <a href="https://tools.ietf.org/html/rfc7662">RFC 7662</a>
+ */
+@Immutable
+final class OAuthBearerIntrospectedToken implements OAuthBearerRolesToken {
+
+  private static final String SUBJECT = "sub";
+  private static final String USERNAME = "username";
+  private static final String CLIENT_ID = "client_id";
+  private static final String SCOPE = "scope";
+  private static final String EXPIRATION_TIME = "exp";
+  private static final String ISSUE_TIME = "iat";
+  private static final String JWT_ID = "jti";
+
+  @Nonnull
+  private final String value;
+  @Nonnull
+  private final Set<String> scope;
+  private final long lifetimeMs;
+  @Nonnull
+  private final String principalName;
+  @Nullable
+  private final Long startTimeMs;
+  @Nullable
+  private final String jwtId;
+  @Nonnull
+  private final Set<String> roles;
+  @Nonnull
+  private final Map<String, Object> claims;
+
+  /**
+   * Creates token from introspection response.
+   *
+   * @param value raw token
+   * @param response introspection response of active token
+   * @param rolesExtractor extractor of roles from response
+   * @param defaultLifetimeMs expiration time in milliseconds of token without {@code exp}
+   * @throws InactiveTokenException if response does not identify token principal
+   */
+  OAuthBearerIntrospectedToken(@Nonnull String value, @Nonnull Map<String, Object> response,
+      @Nonnull TokenRolesExtractor rolesExtractor, long defaultLifetimeMs)
+      throws InactiveTokenException {
+    String principalName = firstString(response, SUBJECT, USERNAME, CLIENT_ID);
+    if (principalName == null) {
+      throw new InactiveTokenException(
+          "Introspection response of active token does not contain sub, username or client_id");
+    }
+    this.principalName = principalName;
+    this.value = value;
+    Object scope = response.get(SCOPE);
+    Set<String> scopes = new HashSet<>();
+    if (scope instanceof String) {
+      for (String item : ((String) scope).split(OAuthBearerJwt.SPACE)) {
+        if (!item.isEmpty()) {
+          scopes.add(item);
+        }
+      }
+    }
+    this.scope = Collections.unmodifiableSet(scopes);
+    Long expirationTime = seconds(response.get(EXPIRATION_TIME));
+    this.lifetimeMs = expirationTime != null ? expirationTime * 1000 : defaultLifetimeMs;
+    Long issueTime = seconds(response.get(ISSUE_TIME));
+    this.startTimeMs = issueTime != null ? issueTime * 1000 : null;
+    this.jwtId = firstString(response, JWT_ID);
+    this.roles = rolesExtractor.extract(response);
+    this.claims = Collections.unmodifiableMap(response);
+  }
+
+  @Nullable
+  private static Long seconds(@Nullable Object value) {
+    return value instanceof Number ? ((Number) value).longValue() : null;
+  }
+
+  @Nullable
+  private static String firstString(@Nonnull Map<String, Object> response,
+      @Nonnull String... names) {
+    for (String name : names) {
+      Object value = response.get(name);
+      if (value instanceof String && !((String) value).isEmpty()) {
+        return (String) value;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public String value() {
+    return value;
+  }
+
+  @Override
+  public Set<String> scope() {
+    return scope;
+  }
+
+  @Override
+  public long lifetimeMs() {
+    return lifetimeMs;
+  }
+
+  @Override
+  public String principalName() {
+    return principalName;
+  }
+
+  @Override
+  public Long startTimeMs() {
+    return startTimeMs;
+  }
+
+  @Override
+  public Set<String> roles() {
+    return roles;
+  }
+
+  @Nullable
+  String jwtId() {
+    return jwtId;
+  }
+
+  /**
+   * Returns introspection response, which contains claims of the token.
+   *
+   * @return introspection response
+   */
+  @Nonnull
+  Map<String, Object> claims() {
+    return claims;
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * JWT which has passed signature and claims verification.
+ *
+ * <p>Kafka keeps validated token for the life of connection, and the same token is kept in
+ * {@link ValidatedTokenCache}, so only fields used by Kafka, authorization and validator caches
+ * are copied from {@link OAuthBearerJwt}. Parsed JWT and its claims are not referenced, and role
+ * sets are interned.</p>
+ */
+@Immutable
+final class OAuthBearerValidatedToken implements OAuthBearerRolesToken {
+
+  @Nonnull
+  private final String value;
+  @Nonnull
+  private final Set<String> scope;
+  private final long lifetimeMs;
+  @Nonnull
+  private final String principalName;
+  @Nullable
+  private final Long startTimeMs;
+  @Nullable
+  private final String jwtId;
+  @Nonnull
+  private final String issuer;
+  @Nonnull
+  private final Set<String> roles;
+
+  /**
+   * Creates validated token from parsed one.
+   *
+   * @param jwt parsed token which has been verified
+   * @param rolesExtractor extractor of roles from token claims
+   */
+  OAuthBearerValidatedToken(@Nonnull OAuthBearerJwt jwt,
+      @Nonnull TokenRolesExtractor rolesExtractor) {
+    this.value = jwt.value();
+    this.scope = ImmutableSet.copyOf(jwt.scope());
+    this.lifetimeMs = jwt.lifetimeMs();
+    this.principalName = jwt.principalName();
+    this.startTimeMs = jwt.startTimeMs();
+    this.jwtId = jwt.jwtId();
+    this.issuer = jwt.issuer();
+    this.roles = OAuthKafkaPrincipal.internRoles(rolesExtractor.extract(jwt.claims().getClaims()));
+  }
+
+  @Override
+  public String value() {
+    return value;
+  }
+
+  @Override
+  public Set<String> scope() {
+    return scope;
+  }
+
+  @Override
+  public long lifetimeMs() {
+    return lifetimeMs;
+  }
+
+  @Override
+  public String principalName() {
+    return principalName;
+  }
+
+  @Override
+  public Long startTimeMs() {
+    return startTimeMs;
+  }
+
+  @Override
+  public Set<String> roles() {
+    return roles;
+  }
+
+  /**
+   * Returns unique identifier of the token.
+   *
+   * @return token ID or {@code null} if token does not have {@code jti} claim
+   */
+  @Nullable
+  String jwtId() {
+    return jwtId;
+  }
+
+  /**
+   * Returns who created and signed the token.
+   *
+   * @return issuer url
+   */
+  @Nonnull
+  String issuer() {
+    return issuer;
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Admin operations of {@link ValidatorState} which are published to JMX under
+ * {@code org.qubership.kafka.security:type=OAuthBearerValidatorAdmin,id=<n>}.
+ */
+@ThreadSafe
+final class OAuthBearerValidatorAdmin implements OAuthBearerValidatorAdminMBean {
+  private static final Logger LOGGER = LoggerFactory.getLogger(OAuthBearerValidatorAdmin.class);
+
+  private static final String OBJECT_NAME_PATTERN =
+      "org.qubership.kafka.security:type=OAuthBearerValidatorAdmin,id=%d";
+  private static final AtomicInteger INSTANCE_COUNTER = new AtomicInteger();
+
+  @Nonnull
+  private final ValidatorState state;
+  @Nullable
+  private ObjectName objectName;
+
+  OAuthBearerValidatorAdmin(@Nonnull ValidatorState state) {
+    this.state = state;
+  }
+
+  /**
+   * Registers admin operations in platform MBean server. Registration failures are not fatal for
+   * validation, so they are only logged.
+   */
+  void register() {
+    try {
+      ObjectName name = new ObjectName(
+          String.format(OBJECT_NAME_PATTERN, INSTANCE_COUNTER.incrementAndGet()));
+      ManagementFactory.getPlatformMBeanServer().registerMBean(
+          new StandardMBean(this, OAuthBearerValidatorAdminMBean.class), name);
+      objectName = name;
+    } catch (JMException e) {
+      LOGGER.warn("Cannot register OAuth validator admin operations in JMX", e);
+    }
+  }
+
+  void unregister() {
+    if (objectName == null) {
+      return;
+    }
+    try {
+      ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+    } catch (JMException e) {
+      LOGGER.warn("Cannot unregister OAuth validator admin operations from JMX", e);
+    }
+    objectName = null;
+  }
+
+  @Override
+  public String[] getIssuers() {
+    return state.describeIssuers().toArray(new String[0]);
+  }
+
+  @Override
+  public void refreshKeys() {
+    LOGGER.info("Refresh of Identity Provider keys is requested via JMX");
+    state.refreshKeys();
+  }
+
+  @Override
+  public void evictPrincipal(String principalName) {
+    LOGGER.info("Eviction of cached tokens of principal {} is requested via JMX", principalName);
+    state.evictPrincipal(principalName);
+  }
+
+  @Override
+  public void invalidateTokenCaches() {
+    LOGGER.info("Invalidation of token caches is requested via JMX");
+    state.invalidateTokenCaches();
+  }
+}
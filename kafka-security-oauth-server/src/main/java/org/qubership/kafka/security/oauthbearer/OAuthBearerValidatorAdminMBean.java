@@ -0,0 +1,49 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+/**
+ * JMX operations for inspection and maintenance of {@link OAuthBearerValidatorCallbackHandler}
+ * state without broker restart.
+ */
+public interface OAuthBearerValidatorAdminMBean {
+
+  /**
+   * Returns Identity Providers whose keys have been loaded, with their key IDs and time since
+   * their keys have been updated.
+   *
+   * @return description of every loaded Identity Provider
+   */
+  String[] getIssuers();
+
+  /**
+   * Reloads keystore and requests reload of JWKS of every loaded Identity Provider.
+   */
+  void refreshKeys();
+
+  /**
+   * Evicts cached tokens of the principal, so its next authentication is fully validated.
+   *
+   * @param principalName name of principal
+   */
+  void evictPrincipal(String principalName);
+
+  /**
+   * Evicts all validated, rejected and introspected tokens from caches.
+   */
+  void invalidateTokenCaches();
+}
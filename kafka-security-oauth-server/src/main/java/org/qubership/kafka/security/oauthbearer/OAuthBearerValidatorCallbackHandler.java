@@ -16,129 +16,45 @@
 
 package org.qubership.kafka.security.oauthbearer;
 
-import static org.qubership.kafka.security.oauthbearer.OAuthLoginUtils.createClient;
-import static org.qubership.kafka.security.oauthbearer.OAuthLoginUtils.normalizeUrl;
-import static java.util.Objects.requireNonNull;
-
-import org.qubership.kafka.security.audit.AuditConstants;
-import org.qubership.kafka.security.audit.AuditRecordWriter;
-import org.qubership.kafka.security.audit.records.AuthenticationAuditRecord;
+import com.google.common.collect.ImmutableMap;
 import com.nimbusds.jose.JOSEException;
-import com.nimbusds.jose.JWSAlgorithm;
-import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
-import com.nimbusds.jose.jwk.source.JWKSource;
-import com.nimbusds.jose.jwk.source.RemoteJWKSet;
+import com.nimbusds.jose.KeySourceException;
 import com.nimbusds.jose.proc.BadJOSEException;
-import com.nimbusds.jose.proc.JWSKeySelector;
-import com.nimbusds.jose.proc.SecurityContext;
-import com.nimbusds.jose.util.DefaultResourceRetriever;
-import com.nimbusds.jose.util.ResourceRetriever;
-import com.nimbusds.jwt.proc.ConfigurableJWTProcessor;
-import com.nimbusds.jwt.proc.DefaultJWTClaimsVerifier;
-import com.nimbusds.jwt.proc.DefaultJWTProcessor;
-import com.nimbusds.jwt.proc.JWTClaimsSetVerifier;
-import java.io.FileInputStream;
+import com.nimbusds.jose.proc.BadJWSException;
+import com.nimbusds.jwt.proc.BadJWTException;
 import java.io.IOException;
 import java.net.MalformedURLException;
-import java.net.URI;
 import java.net.URISyntaxException;
-import java.net.URL;
 import java.security.GeneralSecurityException;
-import java.security.KeyStore;
 import java.text.ParseException;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.security.auth.callback.Callback;
 import javax.security.auth.callback.UnsupportedCallbackException;
-import javax.ws.rs.client.Client;
-import javax.ws.rs.client.WebTarget;
-import javax.ws.rs.core.MediaType;
-import javax.ws.rs.core.UriBuilder;
 
-import org.apache.kafka.common.security.oauthbearer.OAuthBearerToken;
 import org.apache.kafka.common.security.oauthbearer.OAuthBearerValidatorCallback;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
+/**
+ * Validates OAuth bearer tokens on broker side. Handlers configured with the same JAAS options,
+ * for example for several listeners, share one {@link ValidatorState}.
+ */
 public class OAuthBearerValidatorCallbackHandler extends AbstractOAuthBearerCallbackHandler {
 
-  private static final Logger LOGGER =
-      LoggerFactory.getLogger(OAuthBearerValidatorCallbackHandler.class);
-
-  private static final String CLOCK_SKEW = "clockSkew";
-  private static final String JWKS_CONNECTION_TIMEOUT = "jwksConnectionTimeout";
-  private static final String JWKS_READ_TIMEOUT = "jwksReadTimeout";
-  private static final String JWKS_SIZE_LIMIT = "jwksSizeLimit";
-  private static final String IDP_WHITELIST = "idpWhitelist";
-  private static final String TOKEN_ROLES_PATH = "tokenRolesPath";
-  private static final String JWK_SOURCE_TYPE = "jwkSourceType";
-  private static final String KEYSTORE_PATH = "keystorePath";
-  private static final String KEYSTORE_PASSWORD = "keystorePassword";
-  private static final String KEYSTORE_TYPE = "keystoreType";
-
-  private static final String JWKS_SOURCE_TYPE = "jwks";
-  private static final String KEYSTORE_SOURCE_TYPE = "keystore";
-
-  private static final String TOKEN_ROLES_PATH_DEFAULT_VALUE = "resource_access.account.roles";
-  private static final String JWK_SOURCE_TYPE_DEFAULT_VALUE = JWKS_SOURCE_TYPE;
-  private static final String KEYSTORE_PATH_DEFAULT_VALUE = "/opt/kafka/config/public_certs.jks";
-  private static final String KEYSTORE_TYPE_DEFAULT_VALUE = "JKS";
-  private static final boolean REPLACE_HOST_AND_PORT =
-          getBooleanEnv("REPLACE_INTERNAL_HOST_ENABLED");
-
-  @Nonnull
-  private final ConcurrentMap<String, JWKSource<SecurityContext>> jwks = new ConcurrentHashMap<>();
-
-  private JWTClaimsSetVerifier<SecurityContext> claimsVerifier;
-  private int jwksConnectionTimeout;
-  private int jwksReadTimeout;
-  private int jwksSizeLimit;
-  private IdentityProviderUrlResolver identityProviderUrlResolver;
-  private String tokenRolesPath;
-  private String jwkSourceType;
-  private String keystorePath;
-  private String keystorePassword;
-  private String keystoreType;
-  private Client client;
-
-  private static boolean getBooleanEnv(String key) {
-    String env = System.getenv(key);
-    return env == null ? false : "true".equals(env);
-  }
-
-  @Nonnull
-  private static JWTClaimsSetVerifier<SecurityContext> createClaimsVerifier(int maxClockSkew) {
-    DefaultJWTClaimsVerifier<SecurityContext> claimsVerifier = new DefaultJWTClaimsVerifier<>();
-    claimsVerifier.setMaxClockSkew(maxClockSkew);
-    return claimsVerifier;
-  }
+  static final String REVOKED_TOKEN = "Token is revoked";
 
-  private static int extractInt(
-      @Nonnull Map<String, String> options, @Nonnull String key, int defaultValue) {
-    String value = options.get(key);
-    return (value == null || value.isEmpty()) ? defaultValue : Integer.parseInt(value);
-  }
+  private static final SharedRegistry<Map<String, String>, ValidatorState> STATES =
+      new SharedRegistry<>(ValidatorState::close);
 
-  static String replaceHostAndPort(String internal, String external) throws URISyntaxException {
-    URI externalUri = new URI(external);
-    String externalHost = externalUri.getHost();
-    int externalPort = externalUri.getPort();
-    URI internalUri = new URI(internal);
-    return UriBuilder
-            .fromUri(internalUri)
-            .host(externalHost)
-            .port(externalPort)
-            .build()
-            .toString();
-  }
+  @Nullable
+  private Map<String, String> stateKey;
+  private ValidatorState state;
 
   @Override
   public void handle(Callback[] callbacks) throws UnsupportedCallbackException {
     throwExceptionIfNotConfigured();
+    ValidatorState state = state();
+    TokenIntrospector tokenIntrospector = state.tokenIntrospector();
     for (Callback callback : callbacks) {
       if (callback instanceof OAuthBearerValidatorCallback) {
         OAuthBearerValidatorCallback validatorCallback = (OAuthBearerValidatorCallback) callback;
@@ -146,26 +62,93 @@ public class OAuthBearerValidatorCallbackHandler extends AbstractOAuthBearerCall
         if (tokenValue == null) {
           throw new IllegalArgumentException("Callback missing required token value");
         }
-        OAuthBearerJwt jwt = null;
+        String tokenDigest = TokenDigest.of(tokenValue);
+        String rejection = state.rejectedTokenCache().rejection(tokenDigest);
+        if (rejection != null) {
+          validatorCallback.error(rejection, null, null);
+          continue;
+        }
+        String principalName = null;
+        String issuer = null;
         try {
-          jwt = new OAuthBearerJwt(tokenValue, tokenRolesPath);
-          validatorCallback.token(validateToken(jwt));
+          if (tokenIntrospector != null && TokenIntrospector.isOpaque(tokenValue)) {
+            state.settings().tokenPrecheck().checkSize(tokenValue);
+            OAuthBearerIntrospectedToken token =
+                tokenIntrospector.introspect(tokenValue, tokenDigest);
+            state.settings().defaultProfile().checkClaims(token.claims());
+            state.checkRevocation(token.jwtId(), token.principalName());
+            state.successLogger().log(token.principalName());
+            validatorCallback.token(token);
+            continue;
+          }
+          OAuthBearerValidatedToken token = state.tokenCache().get(tokenDigest);
+          if (token == null) {
+            ValidatorSettings settings = state.settings();
+            settings.tokenPrecheck().checkSize(tokenValue);
+            OAuthBearerJwt jwt = parse(tokenValue);
+            principalName = jwt.principalName();
+            issuer = jwt.issuer();
+            token = validateToken(jwt, settings);
+            state.cacheValidatedToken(tokenDigest, token, settings);
+          } else {
+            principalName = token.principalName();
+            issuer = token.issuer();
+            state.checkRevocation(token.jwtId(), principalName);
+          }
+          validatorCallback.token(token);
         } catch (MalformedURLException | URISyntaxException e) {
           error(validatorCallback,
-              "There is no response from Identity Provider with particular URL", e, jwt);
+              "There is no response from Identity Provider with particular URL", e,
+              principalName, issuer);
         } catch (ParseException e) {
           error(validatorCallback,
-              "Key selector cannot parse resource which contains public key", e, jwt);
+              "Key selector cannot parse resource which contains public key", e,
+              principalName, issuer);
+        } catch (TokenPrecheckException e) {
+          state.stats().recordRejection(e.stage());
+          if (e.retryable()) {
+            error(validatorCallback, e.getMessage(), e, principalName, issuer);
+          } else {
+            reject(validatorCallback, e.getMessage(), e, principalName, issuer, tokenDigest);
+          }
+        } catch (BadJWSException | BadJWTException e) {
+          state.stats().recordRejection(ValidationStage.SIGNATURE);
+          reject(validatorCallback, "Cannot verify token using wrong algorithm", e, principalName,
+              issuer, tokenDigest);
         } catch (BadJOSEException e) {
-          error(validatorCallback, "Cannot verify token using wrong algorithm", e, jwt);
+          error(validatorCallback, "Cannot verify token using wrong algorithm", e,
+              principalName, issuer);
+        } catch (CircuitOpenException e) {
+          error(validatorCallback, "Identity Provider is temporarily unavailable", e,
+              principalName, issuer);
+        } catch (KeySourceException e) {
+          error(validatorCallback, "Cannot obtain public keys from Identity Provider", e,
+              principalName, issuer);
         } catch (JOSEException e) {
-          error(validatorCallback, "Cannot verify token with wrong signature", e, jwt);
+          error(validatorCallback, "Cannot verify token with wrong signature", e,
+              principalName, issuer);
+        } catch (AdmissionRejectedException e) {
+          error(validatorCallback, "Too many concurrent token validations, try again later", e,
+              principalName, issuer);
+        } catch (RevokedTokenException e) {
+          state.stats().recordRejection(ValidationStage.REVOCATION);
+          reject(validatorCallback, REVOKED_TOKEN, e, principalName, issuer, tokenDigest);
+        } catch (InactiveTokenException e) {
+          state.stats().recordRejection(ValidationStage.INTROSPECTION);
+          reject(validatorCallback, "Token is not active", e, principalName, issuer, tokenDigest);
         } catch (IssuerNotTrustedException e) {
-          error(validatorCallback, "Token issuer URL is not compliance with whitelist", e, jwt);
+          state.stats().recordRejection(ValidationStage.ISSUER);
+          reject(validatorCallback, "Token issuer URL is not compliance with whitelist", e,
+              principalName, issuer, tokenDigest);
+        } catch (TokenIntrospectionException e) {
+          error(validatorCallback, "Cannot introspect token using Identity Provider", e,
+              principalName, issuer);
         } catch (IOException | GeneralSecurityException e) {
-          error(validatorCallback, "Cannot obtain public certificate from keystore", e, jwt);
+          error(validatorCallback, "Cannot obtain public certificate from keystore", e,
+              principalName, issuer);
         } catch (RuntimeException e) {
-          error(validatorCallback, "Cannot verify token with non-JWT structure", e, jwt);
+          error(validatorCallback, "Unexpected failure of token validation", e,
+              principalName, issuer);
         }
       } else {
         throw new UnsupportedCallbackException(callback);
@@ -173,121 +156,117 @@ public class OAuthBearerValidatorCallbackHandler extends AbstractOAuthBearerCall
     }
   }
 
+  /**
+   * Parses raw token. Parse failures are reported as rejection on {@link ValidationStage#STRUCTURE}
+   * stage, so they are cached unlike other unexpected failures.
+   */
+  @Nonnull
+  private static OAuthBearerJwt parse(@Nonnull String tokenValue) throws TokenPrecheckException {
+    try {
+      return new OAuthBearerJwt(tokenValue);
+    } catch (RuntimeException e) {
+      throw new TokenPrecheckException(ValidationStage.STRUCTURE,
+          "Cannot verify token with non-JWT structure", false, e);
+    }
+  }
+
+  /**
+   * Reports failure which does not depend on Identity Provider availability and remembers it, so
+   * the same token is rejected again without validation.
+   */
+  private void reject(
+      @Nonnull OAuthBearerValidatorCallback callback,
+      @Nonnull String description,
+      @Nonnull Exception e,
+      @Nullable String principalName,
+      @Nullable String issuer,
+      @Nonnull String tokenDigest) {
+    error(callback, description, e, principalName, issuer);
+    state.rejectedTokenCache().put(tokenDigest, description, principalName);
+  }
+
   private void error(
       @Nonnull OAuthBearerValidatorCallback callback,
       @Nonnull String description,
       @Nonnull Exception e,
-      OAuthBearerJwt jwt) {
-    LOGGER.error(description, e);
-    AuditRecordWriter.getInstance().trackAuditEvent(
-        AuthenticationAuditRecord.failed(jwt != null ? jwt.principalName() : null,
-            AuditConstants.OAUTH_AUTHENTICATION_TYPE, description,
-            null)
-    );
+      @Nullable String principalName,
+      @Nullable String issuer) {
+    state.failureReporter().report(description, e, principalName, issuer);
     callback.error(description, null, null);
   }
 
   @Nonnull
-  protected OAuthBearerToken validateToken(@Nonnull OAuthBearerJwt jwt)
+  protected OAuthBearerRolesToken validateToken(@Nonnull OAuthBearerJwt jwt)
       throws IOException, URISyntaxException, BadJOSEException, ParseException,
-      JOSEException, IssuerNotTrustedException, GeneralSecurityException {
-    String identityProviderUrl = identityProviderUrlResolver.resolveUrl(jwt.issuer());
-    JWKSource<SecurityContext> keySource = jwks.get(identityProviderUrl);
-    if (keySource == null) {
-      if (KEYSTORE_SOURCE_TYPE.equalsIgnoreCase(jwkSourceType)) {
-        KeyStore keyStore = KeyStore.getInstance(keystoreType);
-        char[] password = keystorePassword != null ? keystorePassword.toCharArray() : null;
-        keyStore.load(new FileInputStream(keystorePath), password);
-        JWKSet jwkSet = JWKSet.load(keyStore, null);
-        keySource = new ImmutableJWKSet<>(jwkSet);
-      } else {
-        String jwkUri = getJwkFromOpenIdConfig(identityProviderUrl);
-        ResourceRetriever resourceRetriever =
-            new DefaultResourceRetriever(jwksConnectionTimeout, jwksReadTimeout, jwksSizeLimit);
-        keySource = new RemoteJWKSet<>(new URL(jwkUri), resourceRetriever);
-      }
-      JWKSource<SecurityContext> previousKeySource =
-          jwks.putIfAbsent(identityProviderUrl, keySource);
-      if (previousKeySource != null) {
-        keySource = previousKeySource;
-      }
-    }
-    verifySignature(keySource, jwt.algorithm(), jwt.value());
-    LOGGER.info("Successfully validated token with principal: {}", jwt.principalName());
-    return jwt;
+      JOSEException, IssuerNotTrustedException, GeneralSecurityException, RevokedTokenException,
+      AdmissionRejectedException {
+    return validateToken(jwt, state().settings());
   }
 
+  /**
+   * Validates token with the given settings. The same settings must be used to cache the token.
+   * Returned token does not keep parsed JWT, because Kafka keeps it for the life of connection.
+   */
   @Nonnull
-  private String getJwkFromOpenIdConfig(@Nonnull String identityProviderUrl)
-      throws URISyntaxException {
-    String jwkUri = getJwkEndpointUrl(identityProviderUrl);
-    if (jwkUri == null || jwkUri.isEmpty()) {
-      throw new IllegalArgumentException("jwks_uri does not present in openid configuration");
-    }
-    if (jwkUri.startsWith("/")) {
-      jwkUri = normalizeUrl(identityProviderUrl + jwkUri);
+  private OAuthBearerValidatedToken validateToken(@Nonnull OAuthBearerJwt jwt,
+      @Nonnull ValidatorSettings settings)
+      throws IOException, URISyntaxException, BadJOSEException, ParseException,
+      JOSEException, IssuerNotTrustedException, GeneralSecurityException, RevokedTokenException,
+      AdmissionRejectedException {
+    if (jwt.issuer() == null) {
+      throw new TokenPrecheckException(ValidationStage.STRUCTURE, "Token does not have issuer",
+          false);
     }
-
-    if (REPLACE_HOST_AND_PORT) {
-      jwkUri = replaceHostAndPort(jwkUri, identityProviderUrl);
+    IdentityProviderUrlResolver.ResolvedIssuer issuer =
+        settings.identityProviderUrlResolver().resolve(jwt.issuer());
+    IssuerProfile profile = issuer.profile();
+    profile.precheck().check(jwt, System.currentTimeMillis());
+    profile.checkClaims(jwt.claims().getClaims());
+    state.checkRevocation(jwt.jwtId(), jwt.principalName());
+    state.admissionLimiter().acquire();
+    try {
+      state.issuerKeys(issuer.url(), profile, settings).processor(jwt.algorithm())
+          .process(jwt.signedJwt(), null);
+    } finally {
+      state.admissionLimiter().release();
     }
-
-    LOGGER.trace("jwk uri from openid configuration: {}", jwkUri);
-    return jwkUri;
+    state.successLogger().log(jwt.principalName());
+    return new OAuthBearerValidatedToken(jwt, profile.rolesExtractor());
   }
 
-  @Nullable
-  private String getJwkEndpointUrl(@Nonnull String identityProviderUrl) throws URISyntaxException {
-    String configurationUrl =
-        normalizeUrl(identityProviderUrl + "/.well-known/openid-configuration");
-    WebTarget webTarget = client.target(configurationUrl);
-    @SuppressWarnings("unchecked")
-    Map<String, String> response =
-        webTarget.request(MediaType.APPLICATION_JSON_TYPE).get(Map.class);
-    requireNonNull(response,
-        () -> String.format(
-            "JWK endpoint cannot be obtained: invalid response from: %s", configurationUrl));
-    return response.get("jwks_uri");
+  @Override
+  void configureOptions(@Nonnull Map<String, String> options) {
+    Map<String, String> key = ImmutableMap.copyOf(options);
+    ValidatorState newState = STATES.acquire(key, ValidatorState::create);
+    newState.warmUp();
+    releaseState();
+    stateKey = key;
+    state = newState;
   }
 
-  private void verifySignature(
-      @Nonnull JWKSource<SecurityContext> keySource,
-      @Nonnull JWSAlgorithm expectedAlgorithm,
-      @Nonnull String token)
-      throws ParseException, BadJOSEException, JOSEException {
-    JWSKeySelector<SecurityContext> keySelector =
-        new JWSVerificationKeySelectorExtended<>(expectedAlgorithm, keySource);
-    ConfigurableJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
-    processor.setJWSKeySelector(keySelector);
-    processor.setJWTClaimsSetVerifier(claimsVerifier);
-    processor.process(token, null);
+  /**
+   * Returns shared state and fails fast if handler is closed, because state may already be closed
+   * by the last handler which has released it.
+   */
+  @Nonnull
+  private ValidatorState state() {
+    ValidatorState state = this.state;
+    if (state == null) {
+      throw new IllegalStateException("Callback handler is closed");
+    }
+    return state;
   }
 
-  @Override
-  void configureOptions(@Nonnull Map<String, String> options) {
-    int clockSkew = extractInt(options, CLOCK_SKEW, 10);
-    claimsVerifier = createClaimsVerifier(clockSkew);
-    jwksConnectionTimeout = extractInt(options, JWKS_CONNECTION_TIMEOUT, 1000);
-    jwksReadTimeout = extractInt(options, JWKS_READ_TIMEOUT, 1000);
-    jwksSizeLimit = extractInt(options, JWKS_SIZE_LIMIT, 51200);
-    String idpWhitelist = options.get(IDP_WHITELIST);
-    identityProviderUrlResolver = IdentityProviderUrlResolver.create(idpWhitelist);
-    tokenRolesPath = options.getOrDefault(TOKEN_ROLES_PATH, TOKEN_ROLES_PATH_DEFAULT_VALUE);
-    jwkSourceType = options.getOrDefault(JWK_SOURCE_TYPE, JWK_SOURCE_TYPE_DEFAULT_VALUE);
-    if (!KEYSTORE_SOURCE_TYPE.equalsIgnoreCase(jwkSourceType)) {
-      client = createClient(LOGGER);
+  private void releaseState() {
+    if (stateKey != null) {
+      STATES.release(stateKey);
+      stateKey = null;
     }
-    keystorePath = options.getOrDefault(KEYSTORE_PATH, KEYSTORE_PATH_DEFAULT_VALUE);
-    keystorePassword = options.get(KEYSTORE_PASSWORD);
-    keystoreType = options.getOrDefault(KEYSTORE_TYPE, KEYSTORE_TYPE_DEFAULT_VALUE);
-
-    AuditRecordWriter.getInstance().configure(options);
+    state = null;
   }
 
   @Override
   public void close() {
-    if (client != null) {
-      client.close();
-    }
+    releaseState();
   }
 }
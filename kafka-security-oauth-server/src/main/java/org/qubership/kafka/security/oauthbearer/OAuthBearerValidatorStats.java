@@ -0,0 +1,292 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Statistics of {@link OAuthBearerValidatorCallbackHandler} which are published to JMX under
+ * {@code org.qubership.kafka.security:type=OAuthBearerValidator,id=<n>}.
+ */
+@ThreadSafe
+final class OAuthBearerValidatorStats implements OAuthBearerValidatorStatsMBean {
+  private static final Logger LOGGER = LoggerFactory.getLogger(OAuthBearerValidatorStats.class);
+
+  private static final String OBJECT_NAME_PATTERN =
+      "org.qubership.kafka.security:type=OAuthBearerValidator,id=%d";
+  private static final AtomicInteger INSTANCE_COUNTER = new AtomicInteger();
+
+  @Nonnull
+  private final ValidatedTokenCache tokenCache;
+  @Nonnull
+  private final RejectedTokenCache rejectedTokenCache;
+  @Nullable
+  private final TokenIntrospector tokenIntrospector;
+  @Nullable
+  private final RevocationList revocationList;
+  @Nullable
+  private final AdmissionLimiter admissionLimiter;
+  @Nonnull
+  private final LongAdder keyRefetches = new LongAdder();
+  @Nonnull
+  private final LongAdder throttledKeyRefetches = new LongAdder();
+  @Nonnull
+  private final LongAdder absentKeyHits = new LongAdder();
+  @Nonnull
+  private final AtomicInteger openCircuitBreakers = new AtomicInteger();
+  @Nonnull
+  private final LongAdder circuitBreakerOpenings = new LongAdder();
+  @Nonnull
+  private final LongAdder circuitBreakerRejections = new LongAdder();
+  @Nonnull
+  private final Map<ValidationStage, LongAdder> rejections = new EnumMap<>(ValidationStage.class);
+  @Nullable
+  private ObjectName objectName;
+
+  OAuthBearerValidatorStats(@Nonnull ValidatedTokenCache tokenCache,
+      @Nonnull RejectedTokenCache rejectedTokenCache,
+      @Nullable TokenIntrospector tokenIntrospector,
+      @Nullable RevocationList revocationList,
+      @Nullable AdmissionLimiter admissionLimiter) {
+    this.tokenCache = tokenCache;
+    this.rejectedTokenCache = rejectedTokenCache;
+    this.tokenIntrospector = tokenIntrospector;
+    this.revocationList = revocationList;
+    this.admissionLimiter = admissionLimiter;
+    for (ValidationStage stage : ValidationStage.values()) {
+      rejections.put(stage, new LongAdder());
+    }
+  }
+
+  /**
+   * Registers statistics in platform MBean server. Registration failures are not fatal for
+   * validation, so they are only logged.
+   */
+  void register() {
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      ObjectName name = new ObjectName(
+          String.format(OBJECT_NAME_PATTERN, INSTANCE_COUNTER.incrementAndGet()));
+      server.registerMBean(new StandardMBean(this, OAuthBearerValidatorStatsMBean.class), name);
+      objectName = name;
+    } catch (JMException e) {
+      LOGGER.warn("Cannot register OAuth validator statistics in JMX", e);
+    }
+  }
+
+  void unregister() {
+    if (objectName == null) {
+      return;
+    }
+    try {
+      ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+    } catch (JMException e) {
+      LOGGER.warn("Cannot unregister OAuth validator statistics from JMX", e);
+    }
+    objectName = null;
+  }
+
+  void recordKeyRefetch() {
+    keyRefetches.increment();
+  }
+
+  void recordThrottledKeyRefetch() {
+    throttledKeyRefetches.increment();
+  }
+
+  void recordAbsentKeyHit() {
+    absentKeyHits.increment();
+  }
+
+  void recordCircuitBreakerStateChange(@Nonnull CircuitBreaker.State from,
+      @Nonnull CircuitBreaker.State to) {
+    if (to == CircuitBreaker.State.OPEN) {
+      circuitBreakerOpenings.increment();
+    }
+    if (from == CircuitBreaker.State.CLOSED) {
+      openCircuitBreakers.incrementAndGet();
+    } else if (to == CircuitBreaker.State.CLOSED) {
+      openCircuitBreakers.decrementAndGet();
+    }
+  }
+
+  void recordCircuitBreakerRejection() {
+    circuitBreakerRejections.increment();
+  }
+
+  void recordRejection(@Nonnull ValidationStage stage) {
+    rejections.get(stage).increment();
+  }
+
+  @Override
+  public long getTokenCacheSize() {
+    return tokenCache.size();
+  }
+
+  @Override
+  public long getTokenCacheHits() {
+    return tokenCache.stats().hitCount();
+  }
+
+  @Override
+  public long getTokenCacheMisses() {
+    return tokenCache.stats().missCount();
+  }
+
+  @Override
+  public long getTokenCacheEvictions() {
+    return tokenCache.stats().evictionCount();
+  }
+
+  @Override
+  public double getTokenCacheHitRate() {
+    return tokenCache.stats().hitRate();
+  }
+
+  @Override
+  public long getRejectedTokenCacheSize() {
+    return rejectedTokenCache.size();
+  }
+
+  @Override
+  public long getRejectedTokenCacheHits() {
+    return rejectedTokenCache.stats().hitCount();
+  }
+
+  @Override
+  public long getUnknownKeyRefetches() {
+    return keyRefetches.sum();
+  }
+
+  @Override
+  public long getUnknownKeyThrottledRefetches() {
+    return throttledKeyRefetches.sum();
+  }
+
+  @Override
+  public long getUnknownKeyNegativeCacheHits() {
+    return absentKeyHits.sum();
+  }
+
+  @Override
+  public int getOpenCircuitBreakers() {
+    return openCircuitBreakers.get();
+  }
+
+  @Override
+  public long getCircuitBreakerOpenings() {
+    return circuitBreakerOpenings.sum();
+  }
+
+  @Override
+  public long getCircuitBreakerRejections() {
+    return circuitBreakerRejections.sum();
+  }
+
+  @Override
+  public long getRejectedBySize() {
+    return rejections.get(ValidationStage.SIZE).sum();
+  }
+
+  @Override
+  public long getRejectedByStructure() {
+    return rejections.get(ValidationStage.STRUCTURE).sum();
+  }
+
+  @Override
+  public long getRejectedByAlgorithm() {
+    return rejections.get(ValidationStage.ALGORITHM).sum();
+  }
+
+  @Override
+  public long getRejectedByLifetime() {
+    return rejections.get(ValidationStage.LIFETIME).sum();
+  }
+
+  @Override
+  public long getRejectedByIssuer() {
+    return rejections.get(ValidationStage.ISSUER).sum();
+  }
+
+  @Override
+  public long getRejectedBySignature() {
+    return rejections.get(ValidationStage.SIGNATURE).sum();
+  }
+
+  @Override
+  public long getRejectedByIntrospection() {
+    return rejections.get(ValidationStage.INTROSPECTION).sum();
+  }
+
+  @Override
+  public long getIntrospectionCacheSize() {
+    return tokenIntrospector != null ? tokenIntrospector.size() : 0;
+  }
+
+  @Override
+  public long getIntrospectionCacheHits() {
+    return tokenIntrospector != null ? tokenIntrospector.stats().hitCount() : 0;
+  }
+
+  @Override
+  public long getIntrospectionRequests() {
+    return tokenIntrospector != null ? tokenIntrospector.stats().loadCount() : 0;
+  }
+
+  @Override
+  public long getRejectedByClaims() {
+    return rejections.get(ValidationStage.CLAIMS).sum();
+  }
+
+  @Override
+  public long getRejectedByRevocation() {
+    return rejections.get(ValidationStage.REVOCATION).sum();
+  }
+
+  @Override
+  public int getRevocationListSize() {
+    return revocationList != null ? revocationList.size() : 0;
+  }
+
+  @Override
+  public int getActiveValidations() {
+    return admissionLimiter != null ? admissionLimiter.active() : 0;
+  }
+
+  @Override
+  public long getQueuedValidations() {
+    return admissionLimiter != null ? admissionLimiter.queued() : 0;
+  }
+
+  @Override
+  public long getAdmissionRejections() {
+    return admissionLimiter != null ? admissionLimiter.rejections() : 0;
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+/**
+ * JMX view of {@link OAuthBearerValidatorCallbackHandler} statistics.
+ */
+public interface OAuthBearerValidatorStatsMBean {
+
+  long getTokenCacheSize();
+
+  long getTokenCacheHits();
+
+  long getTokenCacheMisses();
+
+  long getTokenCacheEvictions();
+
+  double getTokenCacheHitRate();
+
+  long getRejectedTokenCacheSize();
+
+  long getRejectedTokenCacheHits();
+
+  long getUnknownKeyRefetches();
+
+  long getUnknownKeyThrottledRefetches();
+
+  long getUnknownKeyNegativeCacheHits();
+
+  int getOpenCircuitBreakers();
+
+  long getCircuitBreakerOpenings();
+
+  long getCircuitBreakerRejections();
+
+  long getRejectedBySize();
+
+  long getRejectedByStructure();
+
+  long getRejectedByAlgorithm();
+
+  long getRejectedByLifetime();
+
+  long getRejectedByIssuer();
+
+  long getRejectedBySignature();
+
+  long getRejectedByIntrospection();
+
+  long getIntrospectionCacheSize();
+
+  long getIntrospectionCacheHits();
+
+  long getIntrospectionRequests();
+
+  long getRejectedByClaims();
+
+  long getRejectedByRevocation();
+
+  int getRevocationListSize();
+
+  int getActiveValidations();
+
+  long getQueuedValidations();
+
+  long getAdmissionRejections();
+}
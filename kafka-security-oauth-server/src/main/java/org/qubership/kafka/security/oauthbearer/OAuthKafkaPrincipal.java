@@ -16,25 +16,57 @@
 
 package org.qubership.kafka.security.oauthbearer;
 
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import java.util.Set;
 import javax.annotation.Nonnull;
 import org.apache.kafka.common.security.auth.KafkaPrincipal;
 
+/**
+ * Principal of client authenticated by OAuth token.
+ *
+ * <p>Principal lives as long as connection, so it keeps only roles which are used for
+ * authorization instead of the whole token. Role sets are interned: principals with the same
+ * roles share one immutable set.</p>
+ */
 public class OAuthKafkaPrincipal extends KafkaPrincipal {
 
+  private static final Interner<Set<String>> ROLE_SETS = Interners.newWeakInterner();
+
   @Nonnull
-  private final OAuthBearerJwt token;
+  private final Set<String> roles;
 
-  public OAuthKafkaPrincipal(String principalType, String name, OAuthBearerJwt token) {
+  public OAuthKafkaPrincipal(String principalType, String name,
+      OAuthBearerRolesToken token) {
     super(principalType, name);
-    this.token = token;
+    this.roles = internRoles(token.roles());
   }
 
-  public OAuthBearerJwt getToken() {
-    return token;
+  /**
+   * Returns canonical immutable instance of role set, so equal role sets of tokens and principals
+   * are shared.
+   *
+   * @param roles role set
+   * @return interned role set
+   */
+  @Nonnull
+  static Set<String> internRoles(@Nonnull Set<String> roles) {
+    return ROLE_SETS.intern(ImmutableSet.copyOf(roles));
+  }
+
+  /**
+   * Returns roles of the token which was used for authentication.
+   *
+   * @return unmodifiable set of roles
+   */
+  @Nonnull
+  public Set<String> getRoles() {
+    return roles;
   }
 
   @Override
   public String toString() {
-    return String.format("%s,Roles:%s", super.toString(), String.join(",", getToken().roles()));
+    return String.format("%s,Roles:%s", super.toString(), String.join(",", roles));
   }
 }
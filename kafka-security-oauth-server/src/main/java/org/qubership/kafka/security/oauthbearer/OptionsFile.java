@@ -0,0 +1,148 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Properties file with handler options which is checked periodically and is passed to listener
+ * every time it changes.
+ */
+@ThreadSafe
+final class OptionsFile {
+  private static final Logger LOGGER = LoggerFactory.getLogger(OptionsFile.class);
+
+  @Nonnull
+  private final Path path;
+  @Nonnull
+  private final Consumer<Map<String, String>> reloadListener;
+  @GuardedBy("this")
+  @Nullable
+  private FileTime lastModifiedTime;
+  @GuardedBy("this")
+  private long lastSize = -1;
+  @GuardedBy("this")
+  @Nullable
+  private ScheduledFuture<?> watcher;
+
+  /**
+   * Creates options file, file is not read until {@link #read()} is called.
+   *
+   * @param path path to properties file
+   * @param reloadListener listener which is called with options after file changes
+   */
+  OptionsFile(@Nonnull Path path, @Nonnull Consumer<Map<String, String>> reloadListener) {
+    this.path = path;
+    this.reloadListener = reloadListener;
+  }
+
+  @Nonnull
+  Path path() {
+    return path;
+  }
+
+  /**
+   * Reads options from file and remembers its state, so the same file is not reloaded again.
+   *
+   * @return options from file
+   * @throws IOException if file cannot be read
+   */
+  @Nonnull
+  synchronized Map<String, String> read() throws IOException {
+    BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+    Properties properties = new Properties();
+    try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+      properties.load(reader);
+    }
+    lastModifiedTime = attributes.lastModifiedTime();
+    lastSize = attributes.size();
+    Map<String, String> options = new HashMap<>();
+    for (String name : properties.stringPropertyNames()) {
+      options.put(name, properties.getProperty(name));
+    }
+    return options;
+  }
+
+  /**
+   * Reads file and notifies listener if file has been changed since the last read.
+   *
+   * @return {@code true} if file has been changed
+   * @throws IOException if file cannot be read
+   */
+  boolean reload() throws IOException {
+    Map<String, String> options;
+    synchronized (this) {
+      BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+      if (attributes.lastModifiedTime().equals(lastModifiedTime)
+          && attributes.size() == lastSize) {
+        return false;
+      }
+      options = read();
+    }
+    LOGGER.info("Options are reloaded from {}", path);
+    reloadListener.accept(options);
+    return true;
+  }
+
+  /**
+   * Starts periodic check of file.
+   *
+   * @param executor executor for checks
+   * @param interval interval in milliseconds between checks
+   */
+  synchronized void watch(@Nonnull ScheduledExecutorService executor, long interval) {
+    watcher = executor.scheduleWithFixedDelay(
+        this::reloadIfChanged, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  private void reloadIfChanged() {
+    try {
+      reload();
+    } catch (IOException | RuntimeException e) {
+      LOGGER.warn("Cannot reload options from {}, previous options are used", path, e);
+    }
+  }
+
+  /**
+   * Stops periodic check of file.
+   */
+  synchronized void unwatch() {
+    if (watcher != null) {
+      watcher.cancel(false);
+      watcher = null;
+    }
+  }
+}
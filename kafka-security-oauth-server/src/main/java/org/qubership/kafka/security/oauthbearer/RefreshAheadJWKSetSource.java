@@ -0,0 +1,203 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSetCacheRefreshEvaluator;
+import com.nimbusds.jose.jwk.source.JWKSetSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * JWK set source which refreshes JWK set of Identity Provider in background.
+ *
+ * <p>Only the first load is performed on the calling thread. After that JWK set is reloaded
+ * periodically by the given executor, and requests for refresh, for example when token is signed
+ * with unknown key, only schedule reload. Last successfully loaded JWK set is returned while reload
+ * is in progress or failing, until it becomes older than maximum staleness.</p>
+ */
+@ThreadSafe
+final class RefreshAheadJWKSetSource implements JWKSetSource<SecurityContext> {
+  private static final Logger LOGGER = LoggerFactory.getLogger(RefreshAheadJWKSetSource.class);
+
+  @Nonnull
+  private final String name;
+  @Nonnull
+  private final JWKSetSource<SecurityContext> source;
+  @Nonnull
+  private final ScheduledExecutorService executor;
+  private final long refreshInterval;
+  private final long maxStaleness;
+  @Nonnull
+  private final Consumer<JWKSet> refreshListener;
+  @Nonnull
+  private final AtomicBoolean refreshing = new AtomicBoolean();
+  @Nullable
+  private volatile Snapshot snapshot;
+  @GuardedBy("this")
+  @Nullable
+  private ScheduledFuture<?> scheduledRefresh;
+
+  /**
+   * Creates source.
+   *
+   * @param name name of JWK set used in logs
+   * @param source source which loads JWK set from Identity Provider
+   * @param executor executor for background refresh
+   * @param refreshInterval interval in milliseconds between refreshes of JWK set
+   * @param maxStaleness time in milliseconds during which last loaded JWK set can be used
+   * @param refreshListener listener which is called with every successfully loaded JWK set
+   */
+  RefreshAheadJWKSetSource(@Nonnull String name,
+      @Nonnull JWKSetSource<SecurityContext> source,
+      @Nonnull ScheduledExecutorService executor,
+      long refreshInterval,
+      long maxStaleness,
+      @Nonnull Consumer<JWKSet> refreshListener) {
+    this.name = name;
+    this.source = source;
+    this.executor = executor;
+    this.refreshInterval = refreshInterval;
+    this.maxStaleness = maxStaleness;
+    this.refreshListener = refreshListener;
+  }
+
+  /**
+   * Sets JWK set loaded earlier, for example from snapshot, and schedules its refresh. Does
+   * nothing if JWK set has been already loaded.
+   *
+   * @param jwkSet previously loaded JWK set
+   * @param loadTime time in milliseconds when JWK set has been loaded
+   */
+  synchronized void seed(@Nonnull JWKSet jwkSet, long loadTime) {
+    if (snapshot == null) {
+      snapshot = new Snapshot(jwkSet, loadTime);
+      scheduleRefresh();
+      refreshAsync();
+    }
+  }
+
+  @Override
+  public JWKSet getJWKSet(JWKSetCacheRefreshEvaluator refreshEvaluator, long currentTime,
+      SecurityContext context) throws KeySourceException {
+    Snapshot current = snapshot;
+    if (current == null) {
+      current = load(currentTime);
+    } else if (refreshEvaluator.requiresRefresh(current.jwkSet)) {
+      refreshAsync();
+    }
+    if (currentTime - current.loadTime > maxStaleness) {
+      refreshAsync();
+      throw new KeySourceException(String.format(
+          "JWK set %s has not been refreshed for %d ms", name, currentTime - current.loadTime));
+    }
+    return current.jwkSet;
+  }
+
+  @Nonnull
+  private synchronized Snapshot load(long currentTime) throws KeySourceException {
+    Snapshot current = snapshot;
+    if (current == null) {
+      current = new Snapshot(
+          source.getJWKSet(JWKSetCacheRefreshEvaluator.forceRefresh(), currentTime, null),
+          currentTime);
+      snapshot = current;
+      scheduleRefresh();
+      notifyListener(current.jwkSet);
+    }
+    return current;
+  }
+
+  @GuardedBy("this")
+  private void scheduleRefresh() {
+    scheduledRefresh = executor.scheduleWithFixedDelay(this::refresh,
+        refreshInterval, refreshInterval, TimeUnit.MILLISECONDS);
+  }
+
+  private void notifyListener(@Nonnull JWKSet jwkSet) {
+    try {
+      executor.execute(() -> refreshListener.accept(jwkSet));
+    } catch (RejectedExecutionException e) {
+      LOGGER.debug("Notification about JWK set {} is rejected", name, e);
+    }
+  }
+
+  private void refreshAsync() {
+    if (refreshing.get()) {
+      return;
+    }
+    try {
+      executor.execute(this::refresh);
+    } catch (RejectedExecutionException e) {
+      LOGGER.debug("Refresh of JWK set {} is rejected", name, e);
+    }
+  }
+
+  private void refresh() {
+    if (!refreshing.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      long currentTime = System.currentTimeMillis();
+      JWKSet jwkSet =
+          source.getJWKSet(JWKSetCacheRefreshEvaluator.forceRefresh(), currentTime, null);
+      snapshot = new Snapshot(jwkSet, currentTime);
+      LOGGER.debug("JWK set {} is refreshed", name);
+      refreshListener.accept(jwkSet);
+    } catch (KeySourceException | RuntimeException e) {
+      LOGGER.warn("Cannot refresh JWK set {}, last loaded JWK set is used", name, e);
+    } finally {
+      refreshing.set(false);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    synchronized (this) {
+      if (scheduledRefresh != null) {
+        scheduledRefresh.cancel(false);
+      }
+    }
+    source.close();
+  }
+
+  @Immutable
+  private static final class Snapshot {
+    @Nonnull
+    private final JWKSet jwkSet;
+    private final long loadTime;
+
+    private Snapshot(@Nonnull JWKSet jwkSet, long loadTime) {
+      this.jwkSet = jwkSet;
+      this.loadTime = loadTime;
+    }
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalNotification;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded cache of tokens which have been recently rejected for a reason that cannot change on
+ * retry, for example invalid signature or untrusted issuer. Tokens are keyed by
+ * {@link TokenDigest digest} of their raw value. Repeated rejections are only counted and are
+ * logged once when token leaves the cache.
+ */
+@ThreadSafe
+final class RejectedTokenCache {
+  private static final Logger LOGGER = LoggerFactory.getLogger(RejectedTokenCache.class);
+
+  @Nonnull
+  private final Cache<String, Rejection> cache;
+
+  /**
+   * Creates cache of rejected tokens.
+   *
+   * @param maximumSize maximum number of cached tokens, {@code 0} disables caching
+   * @param timeToLiveMs maximum time in milliseconds for token to stay in cache
+   */
+  RejectedTokenCache(long maximumSize, long timeToLiveMs) {
+    this.cache = CacheBuilder.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(timeToLiveMs, TimeUnit.MILLISECONDS)
+        .removalListener(RejectedTokenCache::logRepeatedRejections)
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * Returns description of the previous rejection of token and counts the repeated rejection.
+   *
+   * @param digest digest of raw token value
+   * @return rejection description or {@code null} if token has not been rejected recently
+   */
+  @Nullable
+  String rejection(@Nonnull String digest) {
+    Rejection rejection = cache.getIfPresent(digest);
+    if (rejection == null) {
+      return null;
+    }
+    rejection.repeats.increment();
+    return rejection.description;
+  }
+
+  void put(@Nonnull String digest, @Nonnull String description, @Nullable String principalName) {
+    cache.put(digest, new Rejection(description, principalName));
+  }
+
+  void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  /**
+   * Forgets rejections with the given description, for example when the reason of rejection is
+   * removed.
+   *
+   * @param description rejection description
+   */
+  void invalidate(@Nonnull String description) {
+    cache.asMap().values().removeIf(rejection -> description.equals(rejection.description));
+  }
+
+  long size() {
+    return cache.size();
+  }
+
+  @Nonnull
+  CacheStats stats() {
+    return cache.stats();
+  }
+
+  private static void logRepeatedRejections(
+      @Nonnull RemovalNotification<String, Rejection> notification) {
+    Rejection rejection = notification.getValue();
+    long repeats = rejection != null ? rejection.repeats.sum() : 0;
+    if (repeats > 0) {
+      LOGGER.warn("Token with principal {} has been rejected {} more times: {}",
+          rejection.principalName, repeats, rejection.description);
+    }
+  }
+
+  @ThreadSafe
+  private static final class Rejection {
+    @Nonnull
+    private final String description;
+    @Nullable
+    private final String principalName;
+    @Nonnull
+    private final LongAdder repeats = new LongAdder();
+
+    private Rejection(@Nonnull String description, @Nullable String principalName) {
+      this.description = description;
+      this.principalName = principalName;
+    }
+  }
+}
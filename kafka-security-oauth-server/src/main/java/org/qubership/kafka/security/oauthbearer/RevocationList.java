@@ -0,0 +1,198 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * List of revoked tokens which is loaded from file and is reloaded when the file changes.
+ *
+ * <p>Every line of the file contains either {@code jti:<token ID>} or {@code sub:<subject>},
+ * empty lines and lines starting with {@code #} are ignored. Entries are kept as exact set with
+ * Bloom filter in front of it, so tokens which are not revoked are usually checked without hash
+ * set lookup.</p>
+ */
+@ThreadSafe
+final class RevocationList {
+  private static final Logger LOGGER = LoggerFactory.getLogger(RevocationList.class);
+
+  private static final String JWT_ID_PREFIX = "jti:";
+  private static final String SUBJECT_PREFIX = "sub:";
+  private static final String COMMENT_PREFIX = "#";
+  private static final int MIN_EXPECTED_ENTRIES = 1000;
+  private static final double FALSE_POSITIVE_PROBABILITY = 0.001;
+
+  @Nonnull
+  private final Path path;
+  @Nonnull
+  private final Runnable reloadListener;
+  @Nonnull
+  private volatile Entries entries = Entries.EMPTY;
+  @GuardedBy("this")
+  @Nullable
+  private FileTime lastModifiedTime;
+  @GuardedBy("this")
+  private long lastSize = -1;
+  @GuardedBy("this")
+  @Nullable
+  private ScheduledFuture<?> watcher;
+
+  /**
+   * Creates empty list, file is not loaded until {@link #reload()} is called.
+   *
+   * @param path path to file with revoked tokens
+   * @param reloadListener listener which is called after new entries are loaded
+   */
+  RevocationList(@Nonnull Path path, @Nonnull Runnable reloadListener) {
+    this.path = path;
+    this.reloadListener = reloadListener;
+  }
+
+  /**
+   * Loads file if it has been changed since the last successful load.
+   *
+   * @return {@code true} if entries have been loaded
+   * @throws IOException if file cannot be read
+   */
+  synchronized boolean reload() throws IOException {
+    BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+    if (attributes.lastModifiedTime().equals(lastModifiedTime) && attributes.size() == lastSize) {
+      return false;
+    }
+    List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+    Set<String> revoked = new HashSet<>();
+    for (String line : lines) {
+      String entry = line.trim();
+      if (entry.startsWith(JWT_ID_PREFIX) || entry.startsWith(SUBJECT_PREFIX)) {
+        revoked.add(entry);
+      } else if (!entry.isEmpty() && !entry.startsWith(COMMENT_PREFIX)) {
+        LOGGER.warn("Unknown entry '{}' in revocation list {} is ignored", entry, path);
+      }
+    }
+    entries = new Entries(revoked);
+    lastModifiedTime = attributes.lastModifiedTime();
+    lastSize = attributes.size();
+    LOGGER.info("{} revoked tokens are loaded from {}", revoked.size(), path);
+    reloadListener.run();
+    return true;
+  }
+
+  /**
+   * Starts periodic check of file.
+   *
+   * @param executor executor for checks
+   * @param interval interval in milliseconds between checks
+   */
+  synchronized void watch(@Nonnull ScheduledExecutorService executor, long interval) {
+    watcher = executor.scheduleWithFixedDelay(
+        this::reloadIfChanged, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  private void reloadIfChanged() {
+    try {
+      reload();
+    } catch (IOException | RuntimeException e) {
+      LOGGER.warn("Cannot reload revocation list {}, previously loaded entries are used", path, e);
+    }
+  }
+
+  /**
+   * Stops periodic check of file.
+   */
+  synchronized void unwatch() {
+    if (watcher != null) {
+      watcher.cancel(false);
+      watcher = null;
+    }
+  }
+
+  /**
+   * Checks whether token is revoked by its ID or subject.
+   *
+   * @param jwtId token ID
+   * @param subject token subject
+   * @return {@code true} if token is revoked
+   */
+  boolean isRevoked(@Nullable String jwtId, @Nullable String subject) {
+    Entries current = entries;
+    return (jwtId != null && current.contains(JWT_ID_PREFIX + jwtId))
+        || (subject != null && current.contains(SUBJECT_PREFIX + subject));
+  }
+
+  /**
+   * Checks that token is not revoked.
+   *
+   * @param jwtId token ID
+   * @param subject token subject
+   * @throws RevokedTokenException if token is revoked
+   */
+  void check(@Nullable String jwtId, @Nullable String subject) throws RevokedTokenException {
+    if (isRevoked(jwtId, subject)) {
+      throw new RevokedTokenException(jwtId, subject);
+    }
+  }
+
+  int size() {
+    return entries.size();
+  }
+
+  @Immutable
+  private static final class Entries {
+    private static final Entries EMPTY = new Entries(new HashSet<>());
+
+    @Nonnull
+    private final BloomFilter<CharSequence> filter;
+    @Nonnull
+    private final Set<String> revoked;
+
+    private Entries(@Nonnull Set<String> revoked) {
+      this.filter = BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8),
+          Math.max(revoked.size(), MIN_EXPECTED_ENTRIES), FALSE_POSITIVE_PROBABILITY);
+      this.revoked = ImmutableSet.copyOf(revoked);
+      this.revoked.forEach(filter::put);
+    }
+
+    private boolean contains(@Nonnull String entry) {
+      return !revoked.isEmpty() && filter.mightContain(entry) && revoked.contains(entry);
+    }
+
+    private int size() {
+      return revoked.size();
+    }
+  }
+}
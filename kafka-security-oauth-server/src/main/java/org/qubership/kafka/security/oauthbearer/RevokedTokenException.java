@@ -0,0 +1,35 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import javax.annotation.Nullable;
+
+/**
+ * Exception for case when token ID or subject is found in {@link RevocationList}.
+ */
+final class RevokedTokenException extends Exception {
+
+  /**
+   * Default constructor for exception.
+   *
+   * @param jwtId token ID
+   * @param subject token subject
+   */
+  RevokedTokenException(@Nullable String jwtId, @Nullable String subject) {
+    super(String.format("Token with ID '%s' and subject '%s' is revoked", jwtId, subject));
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Registry of reference-counted values shared by several owners. Value is created by the first
+ * owner which acquires it by key and is closed when the last owner releases it.
+ *
+ * <p>Value is created under registry lock, so owners which acquire the same key concurrently wait
+ * for the first one instead of creating duplicate values.</p>
+ *
+ * @param <K> type of key, must have value-based {@code equals} and {@code hashCode}
+ * @param <V> type of shared value
+ */
+@ThreadSafe
+final class SharedRegistry<K, V> {
+
+  @Nonnull
+  private final Consumer<? super V> closer;
+  @GuardedBy("this")
+  private final Map<K, Entry<V>> entries = new HashMap<>();
+
+  /**
+   * Creates registry.
+   *
+   * @param closer action which releases value when it has no owners
+   */
+  SharedRegistry(@Nonnull Consumer<? super V> closer) {
+    this.closer = closer;
+  }
+
+  /**
+   * Returns value for the key and increments its reference count. Value is created by factory if
+   * there is no value for the key yet.
+   *
+   * @param key     key of value
+   * @param factory factory of value
+   * @return shared value
+   */
+  @Nonnull
+  synchronized V acquire(@Nonnull K key, @Nonnull Function<? super K, ? extends V> factory) {
+    Entry<V> entry = entries.get(key);
+    if (entry == null) {
+      entry = new Entry<>(factory.apply(key));
+      entries.put(key, entry);
+    }
+    entry.references++;
+    return entry.value;
+  }
+
+  /**
+   * Decrements reference count of value for the key and closes value if it has no owners anymore.
+   *
+   * @param key key of value
+   */
+  void release(@Nonnull K key) {
+    V value;
+    synchronized (this) {
+      Entry<V> entry = entries.get(key);
+      if (entry == null || --entry.references > 0) {
+        return;
+      }
+      entries.remove(key);
+      value = entry.value;
+    }
+    closer.accept(value);
+  }
+
+  /**
+   * Returns number of owners of value for the key.
+   *
+   * @param key key of value
+   * @return reference count, {@code 0} if there is no value for the key
+   */
+  synchronized int references(@Nonnull K key) {
+    Entry<V> entry = entries.get(key);
+    return entry != null ? entry.references : 0;
+  }
+
+  private static final class Entry<V> {
+    @Nonnull
+    private final V value;
+    private int references;
+
+    private Entry(@Nonnull V value) {
+      this.value = value;
+    }
+  }
+}
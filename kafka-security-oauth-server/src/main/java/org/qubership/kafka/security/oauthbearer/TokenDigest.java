@@ -0,0 +1,41 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import javax.annotation.Nonnull;
+
+/**
+ * Computes digests of raw token values, so that caches do not need to keep tokens as keys.
+ */
+final class TokenDigest {
+
+  private TokenDigest() {
+  }
+
+  /**
+   * Returns SHA-256 digest of the given token in hex form.
+   *
+   * @param token raw token value
+   * @return token digest
+   */
+  @Nonnull
+  static String of(@Nonnull String token) {
+    return Hashing.sha256().hashString(token, StandardCharsets.UTF_8).toString();
+  }
+}
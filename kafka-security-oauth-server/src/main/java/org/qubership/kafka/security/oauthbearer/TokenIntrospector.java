@@ -0,0 +1,192 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Validates opaque tokens using introspection endpoint of Identity Provider.
+ *
+ * <p>Active tokens are cached until their expiration time, but no longer than cache time to live.
+ * Concurrent introspections of the same token share one request. Inactive tokens are not cached
+ * here, they are remembered by {@link RejectedTokenCache}.</p>
+ *
+ * @see <a href="https://tools.ietf.org/html/rfc7662">RFC 7662</a>
+ */
+@ThreadSafe
+final class TokenIntrospector {
+
+  private static final String TOKEN = "token";
+  private static final String TOKEN_TYPE_HINT = "token_type_hint";
+  private static final String ACCESS_TOKEN = "access_token";
+  private static final String ACTIVE = "active";
+  private static final int JWT_PARTS_SEPARATORS = 2;
+  private static final String AUTHORIZATION = "Authorization";
+
+  @Nonnull
+  private final HttpTransport transport;
+  @Nonnull
+  private final String endpoint;
+  @Nullable
+  private final String authorization;
+  private final int readTimeout;
+  @Nonnull
+  private final TokenRolesExtractor rolesExtractor;
+  @Nonnull
+  private final CircuitBreaker circuitBreaker;
+  private final long timeToLiveMs;
+  @Nonnull
+  private final Cache<String, OAuthBearerIntrospectedToken> cache;
+
+  /**
+   * Creates introspector.
+   *
+   * @param transport HTTP transport
+   * @param endpoint url of introspection endpoint
+   * @param clientId client ID for authentication on introspection endpoint
+   * @param clientSecret client secret for authentication on introspection endpoint
+   * @param readTimeout read timeout in milliseconds
+   * @param rolesExtractor extractor of roles from introspection response
+   * @param circuitBreaker circuit breaker of introspection endpoint
+   * @param maximumSize maximum number of cached tokens, {@code 0} disables caching
+   * @param timeToLiveMs maximum time in milliseconds for token to stay in cache
+   */
+  TokenIntrospector(@Nonnull HttpTransport transport, @Nonnull String endpoint,
+      @Nullable String clientId, @Nullable String clientSecret, int readTimeout,
+      @Nonnull TokenRolesExtractor rolesExtractor, @Nonnull CircuitBreaker circuitBreaker,
+      long maximumSize, long timeToLiveMs) {
+    this.transport = transport;
+    this.endpoint = endpoint;
+    this.authorization = clientId == null ? null : "Basic " + Base64.getEncoder().encodeToString(
+        (clientId + ":" + (clientSecret != null ? clientSecret : ""))
+            .getBytes(StandardCharsets.UTF_8));
+    this.readTimeout = readTimeout;
+    this.rolesExtractor = rolesExtractor;
+    this.circuitBreaker = circuitBreaker;
+    this.timeToLiveMs = timeToLiveMs;
+    this.cache = CacheBuilder.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(timeToLiveMs, TimeUnit.MILLISECONDS)
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * Checks whether token cannot be parsed as signed JWT and should be introspected.
+   *
+   * @param tokenValue raw token
+   * @return {@code true} if token does not have JWS compact serialization
+   */
+  static boolean isOpaque(@Nonnull String tokenValue) {
+    int separators = 0;
+    for (int i = 0; i < tokenValue.length(); i++) {
+      if (tokenValue.charAt(i) == '.') {
+        separators++;
+      }
+    }
+    return separators != JWT_PARTS_SEPARATORS;
+  }
+
+  /**
+   * Returns cached token or introspects it.
+   *
+   * @param tokenValue raw token
+   * @param digest digest of raw token
+   * @return active token
+   * @throws InactiveTokenException if token is not active
+   * @throws TokenIntrospectionException if token cannot be introspected
+   */
+  @Nonnull
+  OAuthBearerIntrospectedToken introspect(@Nonnull String tokenValue, @Nonnull String digest)
+      throws InactiveTokenException, TokenIntrospectionException {
+    OAuthBearerIntrospectedToken token = cache.getIfPresent(digest);
+    if (token != null && token.lifetimeMs() <= System.currentTimeMillis()) {
+      cache.invalidate(digest);
+    }
+    try {
+      return cache.get(digest, () -> request(tokenValue));
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof InactiveTokenException) {
+        throw (InactiveTokenException) e.getCause();
+      }
+      throw new TokenIntrospectionException("Cannot introspect token using " + endpoint,
+          e.getCause());
+    } catch (UncheckedExecutionException e) {
+      throw new TokenIntrospectionException("Cannot introspect token using " + endpoint,
+          e.getCause());
+    }
+  }
+
+  @Nonnull
+  private OAuthBearerIntrospectedToken request(@Nonnull String tokenValue)
+      throws InactiveTokenException, CircuitOpenException, IOException {
+    long currentTime = System.currentTimeMillis();
+    circuitBreaker.acquire(currentTime);
+    Map<String, Object> response;
+    try {
+      Map<String, String> form = new LinkedHashMap<>();
+      form.put(TOKEN, tokenValue);
+      form.put(TOKEN_TYPE_HINT, ACCESS_TOKEN);
+      TransportRequest request = TransportRequest.postForm(endpoint, form).timeout(readTimeout);
+      if (authorization != null) {
+        request.header(AUTHORIZATION, authorization);
+      }
+      response = transport.send(request);
+      circuitBreaker.onSuccess();
+    } catch (IOException | RuntimeException e) {
+      circuitBreaker.onFailure(System.currentTimeMillis());
+      throw e;
+    }
+    if (response == null || !Boolean.TRUE.equals(response.get(ACTIVE))) {
+      throw new InactiveTokenException();
+    }
+    return new OAuthBearerIntrospectedToken(tokenValue, response, rolesExtractor,
+        currentTime + timeToLiveMs);
+  }
+
+  /**
+   * Evicts all cached tokens which match the given predicate.
+   *
+   * @param predicate condition for tokens to evict
+   */
+  void invalidateIf(@Nonnull Predicate<OAuthBearerIntrospectedToken> predicate) {
+    cache.asMap().values().removeIf(predicate);
+  }
+
+  long size() {
+    return cache.size();
+  }
+
+  @Nonnull
+  CacheStats stats() {
+    return cache.stats();
+  }
+}
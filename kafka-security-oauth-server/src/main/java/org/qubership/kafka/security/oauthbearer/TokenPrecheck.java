@@ -0,0 +1,112 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import com.google.common.collect.ImmutableSet;
+import com.nimbusds.jose.JWSAlgorithm;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Checks of token which do not require cryptography: size, signature algorithm and lifetime. They
+ * are performed before signature verification, so expired or malformed tokens do not cost
+ * signature check.
+ */
+@Immutable
+final class TokenPrecheck {
+
+  /**
+   * Algorithms which are allowed if allowed algorithms are not configured. HMAC algorithms are
+   * included, because keys of {@code oct} type are accepted as verification keys.
+   */
+  private static final Set<JWSAlgorithm> DEFAULT_ALGORITHMS = ImmutableSet.<JWSAlgorithm>builder()
+      .addAll(JWSAlgorithm.Family.SIGNATURE)
+      .addAll(JWSAlgorithm.Family.HMAC_SHA)
+      .build();
+
+  @Nonnull
+  private final Set<JWSAlgorithm> allowedAlgorithms;
+  private final int maxTokenSize;
+  private final long maxClockSkewMs;
+
+  /**
+   * Creates checks.
+   *
+   * @param allowedAlgorithms comma-separated list of allowed signature algorithms, all asymmetric
+   *                          and HMAC algorithms are allowed if it is empty
+   * @param maxTokenSize maximum length of raw token, {@code 0} disables check
+   * @param maxClockSkew maximum clock skew in seconds
+   */
+  TokenPrecheck(@Nullable String allowedAlgorithms, int maxTokenSize, int maxClockSkew) {
+    this.allowedAlgorithms = parseAlgorithms(allowedAlgorithms);
+    this.maxTokenSize = maxTokenSize;
+    this.maxClockSkewMs = maxClockSkew * 1000L;
+  }
+
+  @Nonnull
+  private static Set<JWSAlgorithm> parseAlgorithms(@Nullable String algorithms) {
+    if (algorithms == null || algorithms.trim().isEmpty()) {
+      return DEFAULT_ALGORITHMS;
+    }
+    Set<JWSAlgorithm> result = new HashSet<>();
+    for (String algorithm : algorithms.split(",")) {
+      if (!algorithm.trim().isEmpty()) {
+        result.add(JWSAlgorithm.parse(algorithm.trim()));
+      }
+    }
+    return Collections.unmodifiableSet(result);
+  }
+
+  /**
+   * Checks size of raw token before it is parsed.
+   *
+   * @param tokenValue raw token
+   * @throws TokenPrecheckException if token is too long
+   */
+  void checkSize(@Nonnull String tokenValue) throws TokenPrecheckException {
+    if (maxTokenSize > 0 && tokenValue.length() > maxTokenSize) {
+      throw new TokenPrecheckException(ValidationStage.SIZE,
+          "Token size exceeds " + maxTokenSize + " characters", false);
+    }
+  }
+
+  /**
+   * Checks signature algorithm and lifetime of parsed token.
+   *
+   * @param jwt parsed token
+   * @param currentTime current time in milliseconds
+   * @throws TokenPrecheckException if token must be rejected
+   */
+  void check(@Nonnull OAuthBearerJwt jwt, long currentTime) throws TokenPrecheckException {
+    if (!allowedAlgorithms.contains(jwt.algorithm())) {
+      throw new TokenPrecheckException(ValidationStage.ALGORITHM,
+          "Token is signed with not allowed algorithm " + jwt.algorithm(), false);
+    }
+    if (jwt.lifetimeMs() + maxClockSkewMs < currentTime) {
+      throw new TokenPrecheckException(ValidationStage.LIFETIME, "Token is expired", false);
+    }
+    Date notBeforeTime = jwt.notBeforeTime();
+    if (notBeforeTime != null && notBeforeTime.getTime() - maxClockSkewMs > currentTime) {
+      throw new TokenPrecheckException(ValidationStage.LIFETIME, "Token is not valid yet", true);
+    }
+  }
+}
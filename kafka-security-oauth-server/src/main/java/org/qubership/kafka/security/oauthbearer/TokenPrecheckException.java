@@ -0,0 +1,69 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import com.nimbusds.jwt.proc.BadJWTException;
+import javax.annotation.Nonnull;
+
+/**
+ * Exception for case when token is rejected by checks which are performed before signature
+ * verification.
+ */
+final class TokenPrecheckException extends BadJWTException {
+
+  @Nonnull
+  private final ValidationStage stage;
+  private final boolean retryable;
+
+  /**
+   * Default constructor for exception.
+   *
+   * @param stage validation stage which rejected token
+   * @param message rejection description
+   * @param retryable whether the same token can pass the check later
+   */
+  TokenPrecheckException(@Nonnull ValidationStage stage, @Nonnull String message,
+      boolean retryable) {
+    super(message);
+    this.stage = stage;
+    this.retryable = retryable;
+  }
+
+  /**
+   * Creates exception for check which failed with another exception.
+   *
+   * @param stage validation stage which rejected token
+   * @param message rejection description
+   * @param retryable whether the same token can pass the check later
+   * @param cause failure of the check
+   */
+  TokenPrecheckException(@Nonnull ValidationStage stage, @Nonnull String message,
+      boolean retryable, @Nonnull Throwable cause) {
+    super(message, cause);
+    this.stage = stage;
+    this.retryable = retryable;
+  }
+
+  @Nonnull
+  ValidationStage stage() {
+    return stage;
+  }
+
+  boolean retryable() {
+    return retryable;
+  }
+}
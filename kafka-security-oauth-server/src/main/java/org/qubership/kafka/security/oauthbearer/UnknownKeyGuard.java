@@ -0,0 +1,96 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Protects Identity Provider from JWKS refetches caused by tokens with unknown key IDs.
+ *
+ * <p>JWKS of one issuer is refetched at most once per refetch interval, concurrent misses within
+ * the interval share one refetch. Key IDs which have not been found are remembered for a short
+ * time and rejected without refetch. Remembered key IDs are forgotten when JWKS changes.</p>
+ */
+@ThreadSafe
+final class UnknownKeyGuard {
+
+  private static final String NO_KEY_ID = "";
+  private static final int ABSENT_KEYS_MAX_SIZE = 1000;
+
+  private final long refetchInterval;
+  @Nonnull
+  private final Cache<String, Boolean> absentKeys;
+  @Nonnull
+  private final OAuthBearerValidatorStats stats;
+  @Nonnull
+  private final AtomicLong lastRefetchTime = new AtomicLong();
+
+  /**
+   * Creates guard.
+   *
+   * @param refetchInterval minimum interval in milliseconds between JWKS refetches
+   * @param absentKeyTtl time in milliseconds during which not found key ID is rejected without
+   *                     refetch
+   * @param stats statistics to record refetches and rejections
+   */
+  UnknownKeyGuard(long refetchInterval, long absentKeyTtl,
+      @Nonnull OAuthBearerValidatorStats stats) {
+    this.refetchInterval = refetchInterval;
+    this.absentKeys = CacheBuilder.newBuilder()
+        .maximumSize(ABSENT_KEYS_MAX_SIZE)
+        .expireAfterWrite(absentKeyTtl, TimeUnit.MILLISECONDS)
+        .build();
+    this.stats = stats;
+  }
+
+  /**
+   * Decides whether JWKS should be refetched, because it does not contain key for a token.
+   *
+   * @param kid key ID from token header
+   * @param currentTime current time in milliseconds
+   * @return {@code true} if caller should refetch JWKS
+   */
+  boolean tryRefetch(@Nullable String kid, long currentTime) {
+    String key = kid != null ? kid : NO_KEY_ID;
+    if (absentKeys.getIfPresent(key) != null) {
+      stats.recordAbsentKeyHit();
+      return false;
+    }
+    absentKeys.put(key, Boolean.TRUE);
+    long lastRefetch = lastRefetchTime.get();
+    if (currentTime - lastRefetch < refetchInterval
+        || !lastRefetchTime.compareAndSet(lastRefetch, currentTime)) {
+      stats.recordThrottledKeyRefetch();
+      return false;
+    }
+    stats.recordKeyRefetch();
+    return true;
+  }
+
+  /**
+   * Forgets not found key IDs, must be called when JWKS changes.
+   */
+  void reset() {
+    absentKeys.invalidateAll();
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Bounded cache of tokens which have already passed signature and claims verification. Tokens are
+ * keyed by {@link TokenDigest digest} of their raw value and are never returned after their
+ * expiration time.
+ */
+@ThreadSafe
+final class ValidatedTokenCache {
+
+  @Nonnull
+  private final Cache<String, OAuthBearerValidatedToken> cache;
+
+  /**
+   * Creates cache of validated tokens.
+   *
+   * @param maximumSize maximum number of cached tokens, {@code 0} disables caching
+   * @param timeToLiveMs maximum time in milliseconds for token to stay in cache
+   */
+  ValidatedTokenCache(long maximumSize, long timeToLiveMs) {
+    this.cache = CacheBuilder.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(timeToLiveMs, TimeUnit.MILLISECONDS)
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * Returns validated token by digest if it is cached and is not expired yet.
+   *
+   * @param digest digest of raw token value
+   * @return cached token or {@code null}
+   */
+  @Nullable
+  OAuthBearerValidatedToken get(@Nonnull String digest) {
+    OAuthBearerValidatedToken token = cache.getIfPresent(digest);
+    if (token != null && token.lifetimeMs() <= System.currentTimeMillis()) {
+      cache.invalidate(digest);
+      return null;
+    }
+    return token;
+  }
+
+  void put(@Nonnull String digest, @Nonnull OAuthBearerValidatedToken token) {
+    cache.put(digest, token);
+  }
+
+  /**
+   * Evicts all cached tokens which match the given predicate.
+   *
+   * @param predicate condition for tokens to evict
+   */
+  void invalidateIf(@Nonnull Predicate<OAuthBearerValidatedToken> predicate) {
+    cache.asMap().values().removeIf(predicate);
+  }
+
+  long size() {
+    return cache.size();
+  }
+
+  @Nonnull
+  CacheStats stats() {
+    return cache.stats();
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+/**
+ * Stages of token validation in the order they are performed. Cheap stages go first, so most of
+ * invalid tokens are rejected before signature verification.
+ */
+enum ValidationStage {
+  /**
+   * Raw token is longer than allowed.
+   */
+  SIZE,
+  /**
+   * Token cannot be parsed as signed JWT.
+   */
+  STRUCTURE,
+  /**
+   * Token issuer is not trusted.
+   */
+  ISSUER,
+  /**
+   * Token is signed with algorithm which is not allowed.
+   */
+  ALGORITHM,
+  /**
+   * Token is expired or is not valid yet.
+   */
+  LIFETIME,
+  /**
+   * Token claims violate claims policy.
+   */
+  CLAIMS,
+  /**
+   * Token ID or subject is revoked.
+   */
+  REVOCATION,
+  /**
+   * Token signature or claims cannot be verified.
+   */
+  SIGNATURE,
+  /**
+   * Opaque token is not active according to introspection endpoint.
+   */
+  INTROSPECTION
+}
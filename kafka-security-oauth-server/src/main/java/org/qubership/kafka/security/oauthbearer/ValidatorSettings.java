@@ -0,0 +1,207 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Options of {@link ValidatorState} which can be reloaded without broker restart: whitelist of
+ * Identity Providers with their validation profiles, default profile settings and keystore with
+ * public keys. Settings are replaced as a whole, so every token is validated with consistent
+ * whitelist, profiles and keys.
+ */
+@Immutable
+final class ValidatorSettings {
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(OAuthBearerValidatorCallbackHandler.class);
+
+  static final String IDP_WHITELIST = "idpWhitelist";
+  static final String MAX_TOKEN_SIZE = "maxTokenSize";
+  static final String KEYSTORE_PATH = "keystorePath";
+  static final String KEYSTORE_PASSWORD = "keystorePassword";
+  static final String KEYSTORE_TYPE = "keystoreType";
+
+  /**
+   * Names of options which can be reloaded.
+   */
+  static final Set<String> RELOADABLE_OPTIONS = ImmutableSet.of(IDP_WHITELIST,
+      IssuerProfile.TOKEN_ROLES_PATH, IssuerProfile.CLOCK_SKEW, IssuerProfile.AUDIENCE,
+      IssuerProfile.ALLOWED_ALGORITHMS, IssuerProfile.CLAIMS_POLICY, MAX_TOKEN_SIZE,
+      IssuerProfile.JWK_SOURCE_TYPE, KEYSTORE_PATH, KEYSTORE_PASSWORD, KEYSTORE_TYPE);
+
+  private static final String TOKEN_ROLES_PATH_DEFAULT_VALUE = "resource_access.account.roles";
+  private static final String JWK_SOURCE_TYPE_DEFAULT_VALUE = IssuerProfile.JWKS_SOURCE_TYPE;
+  private static final String KEYSTORE_PATH_DEFAULT_VALUE = "/opt/kafka/config/public_certs.jks";
+  private static final String KEYSTORE_TYPE_DEFAULT_VALUE = "JKS";
+
+  @Nonnull
+  private final Map<String, String> options;
+  @Nonnull
+  private final TokenPrecheck tokenPrecheck;
+  @Nonnull
+  private final IssuerProfile defaultProfile;
+  @Nonnull
+  private final IdentityProviderUrlResolver identityProviderUrlResolver;
+  @Nullable
+  private final KeyStoreJWKSetSource keyStoreSource;
+
+  private ValidatorSettings(@Nonnull Map<String, String> options,
+      @Nullable ValidatorSettings previous) {
+    this.options = options;
+    int clockSkew = ValidatorState.extractInt(options, IssuerProfile.CLOCK_SKEW, 10);
+    int maxTokenSize = ValidatorState.extractInt(options, MAX_TOKEN_SIZE, 32768);
+    tokenPrecheck = new TokenPrecheck(options.get(IssuerProfile.ALLOWED_ALGORITHMS),
+        maxTokenSize, clockSkew);
+    defaultProfile = new IssuerProfile(
+        options.getOrDefault(IssuerProfile.TOKEN_ROLES_PATH, TOKEN_ROLES_PATH_DEFAULT_VALUE),
+        clockSkew, IssuerProfile.parseAudience(options.get(IssuerProfile.AUDIENCE)),
+        options.get(IssuerProfile.ALLOWED_ALGORITHMS), options.get(IssuerProfile.CLAIMS_POLICY),
+        maxTokenSize,
+        options.getOrDefault(IssuerProfile.JWK_SOURCE_TYPE, JWK_SOURCE_TYPE_DEFAULT_VALUE));
+    identityProviderUrlResolver =
+        IdentityProviderUrlResolver.create(options.get(IDP_WHITELIST), defaultProfile);
+    if (identityProviderUrlResolver.profiles().stream().noneMatch(IssuerProfile::usesKeyStore)) {
+      keyStoreSource = null;
+    } else if (previous != null && previous.keyStoreSource != null
+        && hasSameKeyStore(previous)) {
+      keyStoreSource = previous.keyStoreSource;
+    } else {
+      String keystorePath = options.getOrDefault(KEYSTORE_PATH, KEYSTORE_PATH_DEFAULT_VALUE);
+      keyStoreSource = new KeyStoreJWKSetSource(Paths.get(keystorePath),
+          options.getOrDefault(KEYSTORE_TYPE, KEYSTORE_TYPE_DEFAULT_VALUE),
+          options.get(KEYSTORE_PASSWORD));
+      try {
+        keyStoreSource.reload();
+      } catch (IOException | GeneralSecurityException e) {
+        LOGGER.error("Cannot load public keys from keystore {}", keystorePath, e);
+      }
+    }
+  }
+
+  /**
+   * Creates settings from options. Keystore of previous settings is reused if its options have not
+   * been changed.
+   *
+   * @param options handler options, only {@link #RELOADABLE_OPTIONS} are used
+   * @param previous settings which are replaced or {@code null}
+   * @return new settings
+   * @throws IllegalArgumentException if options are invalid
+   */
+  @Nonnull
+  static ValidatorSettings create(@Nonnull Map<String, String> options,
+      @Nullable ValidatorSettings previous) {
+    return new ValidatorSettings(reloadableOptions(options), previous);
+  }
+
+  /**
+   * Returns reloadable subset of options.
+   *
+   * @param options handler options
+   * @return options with names from {@link #RELOADABLE_OPTIONS}
+   */
+  @Nonnull
+  static Map<String, String> reloadableOptions(@Nonnull Map<String, String> options) {
+    ImmutableMap.Builder<String, String> reloadable = ImmutableMap.builder();
+    options.forEach((name, value) -> {
+      if (RELOADABLE_OPTIONS.contains(name)) {
+        reloadable.put(name, value);
+      }
+    });
+    return reloadable.build();
+  }
+
+  private boolean hasSameKeyStore(@Nonnull ValidatorSettings other) {
+    return Objects.equals(options.get(KEYSTORE_PATH), other.options.get(KEYSTORE_PATH))
+        && Objects.equals(options.get(KEYSTORE_TYPE), other.options.get(KEYSTORE_TYPE))
+        && Objects.equals(options.get(KEYSTORE_PASSWORD), other.options.get(KEYSTORE_PASSWORD));
+  }
+
+  /**
+   * Checks whether tokens of the issuer are validated in the same way with other settings: the
+   * issuer is resolved to the same Identity Provider with the same profile and keys.
+   *
+   * @param other settings to compare with
+   * @param issuer issuer of token or url of Identity Provider
+   * @return {@code true} if keys and tokens of the issuer stay valid with other settings
+   */
+  boolean trustsSameAs(@Nonnull ValidatorSettings other, @Nullable String issuer) {
+    IdentityProviderUrlResolver.ResolvedIssuer resolved = resolveOrNull(issuer);
+    IdentityProviderUrlResolver.ResolvedIssuer otherResolved = other.resolveOrNull(issuer);
+    if (resolved == null || otherResolved == null) {
+      return resolved == otherResolved;
+    }
+    IssuerProfile profile = resolved.profile();
+    return resolved.url().equals(otherResolved.url())
+        && profile.hasSameSettings(otherResolved.profile())
+        && (!profile.usesKeyStore() || keyStoreSource == other.keyStoreSource);
+  }
+
+  @Nullable
+  private IdentityProviderUrlResolver.ResolvedIssuer resolveOrNull(@Nullable String issuer) {
+    if (issuer == null) {
+      return null;
+    }
+    try {
+      return identityProviderUrlResolver.resolve(issuer);
+    } catch (IssuerNotTrustedException e) {
+      return null;
+    }
+  }
+
+  @Nonnull
+  Map<String, String> options() {
+    return options;
+  }
+
+  @Nonnull
+  TokenPrecheck tokenPrecheck() {
+    return tokenPrecheck;
+  }
+
+  @Nonnull
+  IssuerProfile defaultProfile() {
+    return defaultProfile;
+  }
+
+  @Nonnull
+  IdentityProviderUrlResolver identityProviderUrlResolver() {
+    return identityProviderUrlResolver;
+  }
+
+  @Nullable
+  KeyStoreJWKSetSource keyStoreSource() {
+    return keyStoreSource;
+  }
+
+  boolean usesJwks() {
+    List<IssuerProfile> profiles = identityProviderUrlResolver.profiles();
+    return !profiles.stream().allMatch(IssuerProfile::usesKeyStore);
+  }
+}
@@ -0,0 +1,917 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import static java.util.Objects.requireNonNull;
+import static org.qubership.kafka.security.oauthbearer.OAuthLoginUtils.createTransport;
+import static org.qubership.kafka.security.oauthbearer.OAuthLoginUtils.normalizeUrl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSetSource;
+import com.nimbusds.jose.jwk.source.URLBasedJWKSetSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.DefaultResourceRetriever;
+import com.nimbusds.jose.util.ResourceRetriever;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import javax.ws.rs.core.UriBuilder;
+import org.qubership.kafka.security.audit.AuditRecordWriter;
+import org.qubership.kafka.security.audit.records.IdentityProviderAuditRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Key sources, caches, Identity Provider clients and background tasks of
+ * {@link OAuthBearerValidatorCallbackHandler}. Kafka creates a handler for every listener, so
+ * handlers with the same options share one state through {@link SharedRegistry} instead of
+ * loading the same keys and running the same background tasks several times.
+ */
+@ThreadSafe
+final class ValidatorState {
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(OAuthBearerValidatorCallbackHandler.class);
+
+  private static final String JWKS_CONNECTION_TIMEOUT = "jwksConnectionTimeout";
+  private static final String JWKS_READ_TIMEOUT = "jwksReadTimeout";
+  private static final String JWKS_SIZE_LIMIT = "jwksSizeLimit";
+  private static final String KEYSTORE_RELOAD_INTERVAL = "keystoreReloadInterval";
+  private static final String TOKEN_CACHE_SIZE = "tokenCacheSize";
+  private static final String TOKEN_CACHE_TTL = "tokenCacheTtl";
+  private static final String REJECTED_TOKEN_CACHE_SIZE = "rejectedTokenCacheSize";
+  private static final String REJECTED_TOKEN_CACHE_TTL = "rejectedTokenCacheTtl";
+  private static final String JWKS_REFRESH_INTERVAL = "jwksRefreshInterval";
+  private static final String JWKS_MAX_STALENESS = "jwksMaxStaleness";
+  private static final String JWKS_REFRESH_THREADS = "jwksRefreshThreads";
+  private static final String UNKNOWN_KID_REFETCH_INTERVAL = "unknownKidRefetchInterval";
+  private static final String UNKNOWN_KID_CACHE_TTL = "unknownKidCacheTtl";
+  private static final String JWKS_SNAPSHOT_DIR = "jwksSnapshotDir";
+  private static final String WARM_UP_ENABLED = "warmUpEnabled";
+  private static final String WARM_UP_TIMEOUT = "warmUpTimeout";
+  private static final String CIRCUIT_BREAKER_FAILURE_THRESHOLD = "circuitBreakerFailureThreshold";
+  private static final String CIRCUIT_BREAKER_OPEN_DURATION = "circuitBreakerOpenDuration";
+  private static final String FAILURE_REPORT_INTERVAL = "failureReportInterval";
+  private static final String INTROSPECTION_ENDPOINT = "introspectionEndpoint";
+  private static final String INTROSPECTION_CLIENT_ID = "introspectionClientId";
+  private static final String INTROSPECTION_CLIENT_SECRET = "introspectionClientSecret";
+  private static final String INTROSPECTION_CACHE_SIZE = "introspectionCacheSize";
+  private static final String INTROSPECTION_CACHE_TTL = "introspectionCacheTtl";
+  private static final String REVOCATION_LIST_PATH = "revocationListPath";
+  private static final String REVOCATION_LIST_RELOAD_INTERVAL = "revocationListReloadInterval";
+  private static final String MAX_CONCURRENT_VALIDATIONS = "maxConcurrentValidations";
+  private static final String VALIDATION_OVERFLOW_POLICY = "validationOverflowPolicy";
+  private static final String VALIDATION_QUEUE_TIMEOUT = "validationQueueTimeout";
+  private static final String JMX_ADMIN_ENABLED = "jmxAdminEnabled";
+  private static final String RELOADABLE_OPTIONS_PATH = "reloadableOptionsPath";
+  private static final String RELOADABLE_OPTIONS_RELOAD_INTERVAL =
+      "reloadableOptionsReloadInterval";
+  private static final String MAX_IDENTITY_PROVIDERS = "maxIdentityProviders";
+  private static final String DISCOVERY_FAILURE_CACHE_TTL = "discoveryFailureCacheTtl";
+
+  private static final int WARM_UP_MAX_THREADS = 8;
+  private static final int CIRCUIT_BREAKERS_CACHE_SIZE = 10000;
+  private static final int DISCOVERY_FAILURES_CACHE_SIZE = 10000;
+  private static final boolean REPLACE_HOST_AND_PORT =
+          getBooleanEnv("REPLACE_INTERNAL_HOST_ENABLED");
+
+  @Nonnull
+  private final ConcurrentMap<String, IssuerKeys> jwks = new ConcurrentHashMap<>();
+  @Nonnull
+  private final Cache<String, CircuitBreaker> circuitBreakers;
+  @Nonnull
+  private final Cache<String, String> discoveryFailures;
+  private final int maxIdentityProviders;
+  @Nonnull
+  private final Map<String, String> options;
+  @Nonnull
+  private final ReadWriteLock reconfigureLock = new ReentrantReadWriteLock();
+  @Nonnull
+  private volatile ValidatorSettings settings;
+  @Nullable
+  private final OptionsFile optionsFile;
+  private final int keystoreReloadInterval;
+  private final int jwksConnectionTimeout;
+  private final int jwksReadTimeout;
+  private final int jwksSizeLimit;
+  @Nullable
+  private final JwksSnapshotStore snapshotStore;
+  @Nullable
+  private final HttpTransport transport;
+  @Nonnull
+  private final ScheduledExecutorService backgroundExecutor;
+  @Nonnull
+  private final ScheduledExecutorService jwksRefreshExecutor;
+  private final int jwksRefreshInterval;
+  private final int jwksMaxStaleness;
+  private final int unknownKidRefetchInterval;
+  private final int unknownKidCacheTtl;
+  private final int circuitBreakerFailureThreshold;
+  private final int circuitBreakerOpenDuration;
+  @Nonnull
+  private final ValidatedTokenCache tokenCache;
+  @Nonnull
+  private final RejectedTokenCache rejectedTokenCache;
+  @Nullable
+  private final TokenIntrospector tokenIntrospector;
+  @Nullable
+  private final RevocationList revocationList;
+  @Nonnull
+  private final AdmissionLimiter admissionLimiter;
+  @Nonnull
+  private final OAuthBearerValidatorStats stats;
+  @Nonnull
+  private final FailureReporter failureReporter;
+  @Nonnull
+  private final SuccessLogger successLogger;
+  @Nullable
+  private final OAuthBearerValidatorAdmin admin;
+  @GuardedBy("this")
+  private boolean warmedUp;
+
+  private static boolean getBooleanEnv(String key) {
+    String env = System.getenv(key);
+    return env == null ? false : "true".equals(env);
+  }
+
+  static int extractInt(
+      @Nonnull Map<String, String> options, @Nonnull String key, int defaultValue) {
+    String value = options.get(key);
+    return (value == null || value.isEmpty()) ? defaultValue : Integer.parseInt(value);
+  }
+
+  @Nonnull
+  static String replaceHostAndPort(String internal, String external) throws URISyntaxException {
+    URI externalUri = new URI(external);
+    String externalHost = externalUri.getHost();
+    int externalPort = externalUri.getPort();
+    URI internalUri = new URI(internal);
+    return UriBuilder
+            .fromUri(internalUri)
+            .host(externalHost)
+            .port(externalPort)
+            .build()
+            .toString();
+  }
+
+  /**
+   * Creates validator state from JAAS options. Key material is loaded lazily on first validation
+   * unless {@link #warmUp()} is called with warm-up enabled.
+   *
+   * <p>All options are parsed before background tasks, Identity Provider clients and JMX beans are
+   * created, and resources which are created before a failure are released, so invalid options do
+   * not leak them.</p>
+   *
+   * @param options JAAS options of validator callback handler
+   */
+  ValidatorState(@Nonnull Map<String, String> options) {
+    this.options = options;
+    jwksConnectionTimeout = extractInt(options, JWKS_CONNECTION_TIMEOUT, 1000);
+    jwksReadTimeout = extractInt(options, JWKS_READ_TIMEOUT, 1000);
+    jwksSizeLimit = extractInt(options, JWKS_SIZE_LIMIT, 51200);
+    keystoreReloadInterval = extractInt(options, KEYSTORE_RELOAD_INTERVAL, 60000);
+    jwksRefreshInterval = extractInt(options, JWKS_REFRESH_INTERVAL, 300000);
+    jwksMaxStaleness = extractInt(options, JWKS_MAX_STALENESS, 3600000);
+    unknownKidRefetchInterval = extractInt(options, UNKNOWN_KID_REFETCH_INTERVAL, 30000);
+    unknownKidCacheTtl = extractInt(options, UNKNOWN_KID_CACHE_TTL, 30000);
+    circuitBreakerFailureThreshold = extractInt(options, CIRCUIT_BREAKER_FAILURE_THRESHOLD, 3);
+    circuitBreakerOpenDuration = extractInt(options, CIRCUIT_BREAKER_OPEN_DURATION, 30000);
+    maxIdentityProviders = extractInt(options, MAX_IDENTITY_PROVIDERS, 1000);
+    int revocationListReloadInterval = extractInt(options, REVOCATION_LIST_RELOAD_INTERVAL, 10000);
+    int optionsReloadInterval = extractInt(options, RELOADABLE_OPTIONS_RELOAD_INTERVAL, 10000);
+    int jwksRefreshThreads = extractInt(options, JWKS_REFRESH_THREADS, 4);
+    if (jwksRefreshThreads < 1) {
+      throw new IllegalArgumentException(JWKS_REFRESH_THREADS + " must be positive");
+    }
+    circuitBreakers = CacheBuilder.newBuilder()
+        .maximumSize(CIRCUIT_BREAKERS_CACHE_SIZE)
+        .removalListener(this::onCircuitBreakerRemoval)
+        .build();
+    discoveryFailures = CacheBuilder.newBuilder()
+        .maximumSize(DISCOVERY_FAILURES_CACHE_SIZE)
+        .expireAfterWrite(extractInt(options, DISCOVERY_FAILURE_CACHE_TTL, 30000),
+            TimeUnit.MILLISECONDS)
+        .build();
+    tokenCache = new ValidatedTokenCache(extractInt(options, TOKEN_CACHE_SIZE, 10000),
+        extractInt(options, TOKEN_CACHE_TTL, 300000));
+    rejectedTokenCache = new RejectedTokenCache(
+        extractInt(options, REJECTED_TOKEN_CACHE_SIZE, 10000),
+        extractInt(options, REJECTED_TOKEN_CACHE_TTL, 60000));
+    admissionLimiter = new AdmissionLimiter(extractInt(options, MAX_CONCURRENT_VALIDATIONS, 0),
+        AdmissionLimiter.OverflowPolicy.parse(options.get(VALIDATION_OVERFLOW_POLICY)),
+        extractInt(options, VALIDATION_QUEUE_TIMEOUT, 1000));
+    failureReporter =
+        new FailureReporter(LOGGER, extractInt(options, FAILURE_REPORT_INTERVAL, 60000));
+    successLogger = SuccessLogger.create(LOGGER, "Successfully validated token with principal: {}",
+        "Successfully validated tokens by principal in the last {} ms: {}", options);
+    String optionsPath = options.get(RELOADABLE_OPTIONS_PATH);
+    optionsFile = (optionsPath == null || optionsPath.isEmpty())
+        ? null : new OptionsFile(Paths.get(optionsPath), this::reconfigure);
+    Map<String, String> effectiveOptions = options;
+    if (optionsFile != null) {
+      try {
+        effectiveOptions = effectiveOptions(optionsFile.read());
+      } catch (IOException e) {
+        LOGGER.error("Cannot read options from {}", optionsPath, e);
+      }
+    }
+    settings = ValidatorSettings.create(effectiveOptions, null);
+    String introspectionEndpoint = options.get(INTROSPECTION_ENDPOINT);
+    boolean introspectionEnabled =
+        introspectionEndpoint != null && !introspectionEndpoint.isEmpty();
+    String revocationListPath = options.get(REVOCATION_LIST_PATH);
+    revocationList = (revocationListPath == null || revocationListPath.isEmpty())
+        ? null : new RevocationList(Paths.get(revocationListPath), this::evictRevokedTokens);
+    backgroundExecutor = Executors.newSingleThreadScheduledExecutor(
+        daemonThreadFactory("oauth-validator-background"));
+    jwksRefreshExecutor = Executors.newScheduledThreadPool(jwksRefreshThreads,
+        daemonThreadFactory("oauth-validator-jwks-refresh"));
+
+    try {
+      if (settings.keyStoreSource() != null) {
+        settings.keyStoreSource().watch(backgroundExecutor, keystoreReloadInterval);
+      }
+      transport = (settings.usesJwks() || introspectionEnabled || optionsFile != null)
+          ? createTransport(options, jwksConnectionTimeout) : null;
+      String snapshotDir = options.get(JWKS_SNAPSHOT_DIR);
+      snapshotStore = (snapshotDir == null || snapshotDir.isEmpty())
+          ? null : new JwksSnapshotStore(Paths.get(snapshotDir));
+      tokenIntrospector = introspectionEnabled
+          ? new TokenIntrospector(transport, introspectionEndpoint,
+              options.get(INTROSPECTION_CLIENT_ID), options.get(INTROSPECTION_CLIENT_SECRET),
+              jwksReadTimeout, settings.defaultProfile().rolesExtractor(),
+              circuitBreaker(introspectionEndpoint),
+              extractInt(options, INTROSPECTION_CACHE_SIZE, 10000),
+              extractInt(options, INTROSPECTION_CACHE_TTL, 300000))
+          : null;
+      if (revocationList != null) {
+        try {
+          revocationList.reload();
+        } catch (IOException e) {
+          LOGGER.error("Cannot load revocation list {}", revocationListPath, e);
+        }
+        revocationList.watch(backgroundExecutor, revocationListReloadInterval);
+      }
+      stats = new OAuthBearerValidatorStats(tokenCache, rejectedTokenCache, tokenIntrospector,
+          revocationList, admissionLimiter);
+      stats.register();
+
+      AuditRecordWriter.getInstance().configure(options);
+      failureReporter.schedule(backgroundExecutor);
+      admin = Boolean.parseBoolean(options.get(JMX_ADMIN_ENABLED))
+          ? new OAuthBearerValidatorAdmin(this) : null;
+      if (optionsFile != null) {
+        optionsFile.watch(backgroundExecutor, optionsReloadInterval);
+      }
+    } catch (RuntimeException e) {
+      close();
+      throw e;
+    }
+  }
+
+  /**
+   * Creates validator state and registers its admin operations if they are enabled by options.
+   * State is not warmed up, see {@link #warmUp()}.
+   *
+   * @param options JAAS options of validator callback handler
+   * @return configured validator state
+   */
+  @Nonnull
+  static ValidatorState create(@Nonnull Map<String, String> options) {
+    ValidatorState state = new ValidatorState(options);
+    if (state.admin != null) {
+      state.admin.register();
+    }
+    return state;
+  }
+
+  /**
+   * Returns current reloadable settings. Validation of one token should use the same settings
+   * instance from start to end.
+   *
+   * @return current settings
+   */
+  @Nonnull
+  ValidatorSettings settings() {
+    return settings;
+  }
+
+  @Nonnull
+  ValidatedTokenCache tokenCache() {
+    return tokenCache;
+  }
+
+  @Nonnull
+  RejectedTokenCache rejectedTokenCache() {
+    return rejectedTokenCache;
+  }
+
+  @Nullable
+  TokenIntrospector tokenIntrospector() {
+    return tokenIntrospector;
+  }
+
+  @Nonnull
+  AdmissionLimiter admissionLimiter() {
+    return admissionLimiter;
+  }
+
+  @Nonnull
+  OAuthBearerValidatorStats stats() {
+    return stats;
+  }
+
+  @Nonnull
+  FailureReporter failureReporter() {
+    return failureReporter;
+  }
+
+  @Nonnull
+  SuccessLogger successLogger() {
+    return successLogger;
+  }
+
+  void checkRevocation(@Nullable String jwtId, @Nullable String subject)
+      throws RevokedTokenException {
+    if (revocationList != null) {
+      revocationList.check(jwtId, subject);
+    }
+  }
+
+  /**
+   * Evicts cached tokens which are revoked by reloaded revocation list and forgets previous
+   * revocation rejections, so tokens which are removed from the list are accepted again.
+   */
+  private void evictRevokedTokens() {
+    RevocationList revocations = revocationList;
+    if (revocations == null) {
+      return;
+    }
+    tokenCache.invalidateIf(token -> revocations.isRevoked(token.jwtId(), token.principalName()));
+    if (tokenIntrospector != null) {
+      tokenIntrospector.invalidateIf(
+          token -> revocations.isRevoked(token.jwtId(), token.principalName()));
+    }
+    rejectedTokenCache.invalidate(OAuthBearerValidatorCallbackHandler.REVOKED_TOKEN);
+  }
+
+  /**
+   * Caches validated token unless settings which have been used to validate it have been replaced
+   * by reload. Token is cached under read lock of reload, so reload evicts it if it is cached with
+   * replaced settings.
+   *
+   * @param digest digest of raw token value
+   * @param token validated token
+   * @param settings settings which have been used to validate token
+   */
+  void cacheValidatedToken(@Nonnull String digest, @Nonnull OAuthBearerValidatedToken token,
+      @Nonnull ValidatorSettings settings) {
+    reconfigureLock.readLock().lock();
+    try {
+      if (settings == this.settings) {
+        tokenCache.put(digest, token);
+      }
+    } finally {
+      reconfigureLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns key material of Identity Provider and creates it on first use.
+   *
+   * <p>Key material is created under read lock of settings reload, so key material which is
+   * created with replaced settings is never left in the map after reload. Key material is not
+   * returned for replaced settings at all.</p>
+   *
+   * @param identityProviderUrl trusted url of Identity Provider
+   * @param profile validation profile of Identity Provider
+   * @param settings settings which have been used to resolve Identity Provider
+   * @return key material of Identity Provider
+   */
+  @Nonnull
+  IssuerKeys issuerKeys(@Nonnull String identityProviderUrl,
+      @Nonnull IssuerProfile profile, @Nonnull ValidatorSettings settings)
+      throws IOException, URISyntaxException, KeySourceException {
+    IssuerKeys issuerKeys = jwks.get(identityProviderUrl);
+    if (issuerKeys != null && settings == this.settings) {
+      return issuerKeys;
+    }
+    reconfigureLock.readLock().lock();
+    try {
+      if (settings != this.settings) {
+        throw new KeySourceException("Validator options have been reloaded during validation");
+      }
+      return createIssuerKeys(identityProviderUrl, profile, settings);
+    } finally {
+      reconfigureLock.readLock().unlock();
+    }
+  }
+
+  @Nonnull
+  private IssuerKeys createIssuerKeys(@Nonnull String identityProviderUrl,
+      @Nonnull IssuerProfile profile, @Nonnull ValidatorSettings settings)
+      throws IOException, URISyntaxException, KeySourceException {
+    IssuerKeys issuerKeys = jwks.get(identityProviderUrl);
+    if (issuerKeys == null) {
+      if (jwks.size() >= maxIdentityProviders) {
+        throw new KeySourceException(String.format(
+            "Keys of %d Identity Providers are already loaded, keys of %s are not loaded",
+            maxIdentityProviders, identityProviderUrl));
+      }
+      KeyStoreJWKSetSource keyStoreSource = settings.keyStoreSource();
+      JwksSnapshotStore.Snapshot snapshot = null;
+      if (profile.usesKeyStore() && keyStoreSource != null) {
+        keyStoreSource.ensureLoaded();
+        issuerKeys = newIssuerKeys(identityProviderUrl, keyStoreSource, profile);
+      } else {
+        snapshot = snapshotStore != null ? snapshotStore.read(identityProviderUrl) : null;
+        String jwkUri = snapshot != null
+            ? snapshot.jwksUri() : discoverJwkUri(identityProviderUrl);
+        issuerKeys = newJwksIssuerKeys(identityProviderUrl, jwkUri, profile, snapshot);
+      }
+      IssuerKeys previousIssuerKeys = jwks.putIfAbsent(identityProviderUrl, issuerKeys);
+      if (previousIssuerKeys != null) {
+        issuerKeys.close();
+        issuerKeys = previousIssuerKeys;
+      } else if (snapshot != null) {
+        scheduleRediscovery(identityProviderUrl, snapshot.jwksUri(), issuerKeys, profile, 0);
+      }
+    }
+    return issuerKeys;
+  }
+
+  @Nonnull
+  private IssuerKeys newJwksIssuerKeys(@Nonnull String identityProviderUrl,
+      @Nonnull String jwkUri, @Nonnull IssuerProfile profile,
+      @Nullable JwksSnapshotStore.Snapshot snapshot) throws IOException {
+    ResourceRetriever resourceRetriever =
+        new DefaultResourceRetriever(jwksConnectionTimeout, jwksReadTimeout, jwksSizeLimit);
+    RefreshAheadJWKSetSource refreshAheadSource = new RefreshAheadJWKSetSource(jwkUri,
+        new CircuitBreakingJWKSetSource(
+            new URLBasedJWKSetSource<>(new URL(jwkUri), resourceRetriever),
+            circuitBreaker(jwkUri)),
+        jwksRefreshExecutor, jwksRefreshInterval, jwksMaxStaleness,
+        jwkSet -> saveSnapshot(identityProviderUrl, jwkUri, jwkSet));
+    if (snapshot != null) {
+      LOGGER.info("JWKS of Identity Provider {} is restored from snapshot", identityProviderUrl);
+      refreshAheadSource.seed(snapshot.jwkSet(), snapshot.savedAt());
+    }
+    return newIssuerKeys(identityProviderUrl, refreshAheadSource, profile);
+  }
+
+  @Nonnull
+  private IssuerKeys newIssuerKeys(@Nonnull String identityProviderUrl,
+      @Nonnull JWKSetSource<SecurityContext> keySource, @Nonnull IssuerProfile profile) {
+    return new IssuerKeys(identityProviderUrl, keySource, profile.claimsVerifier(),
+        () -> tokenCache.invalidateIf(token -> isIssuedBy(token, identityProviderUrl)),
+        new UnknownKeyGuard(unknownKidRefetchInterval, unknownKidCacheTtl, stats));
+  }
+
+  private void scheduleRediscovery(@Nonnull String identityProviderUrl,
+      @Nonnull String jwkUri, @Nonnull IssuerKeys issuerKeys, @Nonnull IssuerProfile profile,
+      long delay) {
+    try {
+      jwksRefreshExecutor.schedule(
+          () -> rediscover(identityProviderUrl, jwkUri, issuerKeys, profile),
+          delay, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      LOGGER.debug("Discovery of Identity Provider {} is rejected", identityProviderUrl, e);
+    }
+  }
+
+  /**
+   * Checks JWKS endpoint of Identity Provider whose keys are restored from snapshot. Keys are
+   * replaced with keys from the discovered endpoint if it differs from the one in snapshot.
+   * Discovery is repeated with JWKS refresh interval until it succeeds.
+   */
+  private void rediscover(@Nonnull String identityProviderUrl, @Nonnull String jwkUri,
+      @Nonnull IssuerKeys issuerKeys, @Nonnull IssuerProfile profile) {
+    if (jwks.get(identityProviderUrl) != issuerKeys) {
+      return;
+    }
+    try {
+      String discoveredJwkUri = getJwkFromOpenIdConfig(identityProviderUrl);
+      if (discoveredJwkUri.equals(jwkUri)) {
+        return;
+      }
+      IssuerKeys discoveredIssuerKeys =
+          newJwksIssuerKeys(identityProviderUrl, discoveredJwkUri, profile, null);
+      try {
+        discoveredIssuerKeys.warmUp();
+      } catch (KeySourceException e) {
+        discoveredIssuerKeys.close();
+        throw e;
+      }
+      if (jwks.replace(identityProviderUrl, issuerKeys, discoveredIssuerKeys)) {
+        LOGGER.info("JWKS endpoint of Identity Provider {} is changed from {} to {}",
+            identityProviderUrl, jwkUri, discoveredJwkUri);
+        issuerKeys.close();
+      } else {
+        discoveredIssuerKeys.close();
+      }
+    } catch (IOException | URISyntaxException | KeySourceException | RuntimeException e) {
+      LOGGER.warn("Cannot discover JWKS endpoint of Identity Provider {}, endpoint {} from "
+          + "snapshot is used", identityProviderUrl, jwkUri, e);
+      scheduleRediscovery(identityProviderUrl, jwkUri, issuerKeys, profile, jwksRefreshInterval);
+    }
+  }
+
+  /**
+   * Warms up state if it is enabled by options. Warm-up is performed only once, handlers which
+   * share the state wait for it. It must not be called under {@link SharedRegistry} lock, so
+   * handlers with other options are not blocked by it.
+   */
+  synchronized void warmUp() {
+    if (warmedUp) {
+      return;
+    }
+    warmedUp = true;
+    if (Boolean.parseBoolean(options.get(WARM_UP_ENABLED))) {
+      warmUp(extractInt(options, WARM_UP_TIMEOUT, 10000));
+    }
+  }
+
+  /**
+   * Loads key material of all trusted Identity Providers concurrently and waits for it no longer
+   * than the given timeout. Identity Providers which are not loaded in time continue loading in
+   * background.
+   *
+   * @param timeout warm-up timeout in milliseconds
+   */
+  private void warmUp(long timeout) {
+    ValidatorSettings settings = this.settings;
+    List<String> identityProviderUrls = settings.identityProviderUrlResolver().trustedUrls();
+    if (identityProviderUrls.isEmpty()) {
+      return;
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(
+        Math.min(identityProviderUrls.size(), WARM_UP_MAX_THREADS),
+        daemonThreadFactory("oauth-validator-warm-up"));
+    Map<String, Future<?>> futures = new LinkedHashMap<>();
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+    for (String identityProviderUrl : identityProviderUrls) {
+      futures.put(identityProviderUrl, executor.submit(() -> {
+        long start = System.nanoTime();
+        IdentityProviderUrlResolver.ResolvedIssuer issuer =
+            settings.identityProviderUrlResolver().resolve(identityProviderUrl);
+        issuerKeys(issuer.url(), issuer.profile(), settings).warmUp();
+        LOGGER.info("Keys of Identity Provider {} are loaded in {} ms", identityProviderUrl,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return null;
+      }));
+    }
+    executor.shutdown();
+    for (Map.Entry<String, Future<?>> future : futures.entrySet()) {
+      try {
+        future.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+      } catch (TimeoutException e) {
+        LOGGER.warn("Keys of Identity Provider {} are not loaded in {} ms, loading continues "
+            + "in background", future.getKey(), timeout);
+      } catch (ExecutionException e) {
+        LOGGER.warn("Cannot load keys of Identity Provider {}", future.getKey(), e.getCause());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  @Nonnull
+  private static ThreadFactory daemonThreadFactory(@Nonnull String name) {
+    return runnable -> {
+      Thread thread = new Thread(runnable, name);
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  private void saveSnapshot(@Nonnull String identityProviderUrl, @Nonnull String jwkUri,
+      @Nonnull JWKSet jwkSet) {
+    if (snapshotStore != null) {
+      snapshotStore.save(identityProviderUrl, jwkUri, jwkSet);
+    }
+  }
+
+  @Nonnull
+  private CircuitBreaker circuitBreaker(@Nonnull String endpoint) {
+    return circuitBreakers.asMap().computeIfAbsent(endpoint, url -> new CircuitBreaker(url,
+        circuitBreakerFailureThreshold, circuitBreakerOpenDuration, new CircuitBreaker.Listener() {
+          @Override
+          public void onStateChange(@Nonnull String endpoint, @Nonnull CircuitBreaker.State from,
+              @Nonnull CircuitBreaker.State to) {
+            onCircuitStateChange(endpoint, from, to);
+          }
+
+          @Override
+          public void onRejection(@Nonnull String endpoint) {
+            stats.recordCircuitBreakerRejection();
+          }
+        }));
+  }
+
+  /**
+   * Circuit breakers of endpoints which are not used for long time are evicted from bounded cache.
+   * Evicted breaker is not open anymore from the point of view of statistics.
+   */
+  private void onCircuitBreakerRemoval(
+      @Nonnull RemovalNotification<String, CircuitBreaker> notification) {
+    CircuitBreaker circuitBreaker = notification.getValue();
+    if (notification.wasEvicted() && circuitBreaker != null) {
+      CircuitBreaker.State state = circuitBreaker.state();
+      if (state != CircuitBreaker.State.CLOSED) {
+        stats.recordCircuitBreakerStateChange(state, CircuitBreaker.State.CLOSED);
+      }
+    }
+  }
+
+  private void onCircuitStateChange(@Nonnull String endpoint, @Nonnull CircuitBreaker.State from,
+      @Nonnull CircuitBreaker.State to) {
+    if (to == CircuitBreaker.State.OPEN) {
+      LOGGER.warn("Circuit breaker of Identity Provider endpoint {} is open", endpoint);
+    } else {
+      LOGGER.info("Circuit breaker of Identity Provider endpoint {} is {}", endpoint, to);
+    }
+    stats.recordCircuitBreakerStateChange(from, to);
+    AuditRecordWriter.getInstance().trackAuditEvent(
+        IdentityProviderAuditRecord.circuitStateChanged(endpoint, to.name(),
+            to != CircuitBreaker.State.OPEN));
+  }
+
+  private boolean isIssuedBy(@Nonnull OAuthBearerValidatedToken token,
+      @Nonnull String identityProviderUrl) {
+    try {
+      return identityProviderUrl.equals(
+          settings.identityProviderUrlResolver().resolveUrl(token.issuer()));
+    } catch (IssuerNotTrustedException e) {
+      return true;
+    }
+  }
+
+  /**
+   * Discovers JWKS endpoint of Identity Provider. Failed discovery is remembered, so tokens with
+   * the same issuer, for example forged ones, do not reach Identity Provider until it expires.
+   */
+  @Nonnull
+  private String discoverJwkUri(@Nonnull String identityProviderUrl)
+      throws URISyntaxException, KeySourceException {
+    String failure = discoveryFailures.getIfPresent(identityProviderUrl);
+    if (failure != null) {
+      throw new KeySourceException(String.format(
+          "Discovery of Identity Provider %s has recently failed: %s", identityProviderUrl,
+          failure));
+    }
+    try {
+      return getJwkFromOpenIdConfig(identityProviderUrl);
+    } catch (KeySourceException e) {
+      discoveryFailures.put(identityProviderUrl, String.valueOf(e.getMessage()));
+      throw e;
+    }
+  }
+
+  @Nonnull
+  private String getJwkFromOpenIdConfig(@Nonnull String identityProviderUrl)
+      throws URISyntaxException, KeySourceException {
+    String jwkUri = getJwkEndpointUrl(identityProviderUrl);
+    if (jwkUri == null || jwkUri.isEmpty()) {
+      throw new KeySourceException("jwks_uri does not present in openid configuration");
+    }
+    if (jwkUri.startsWith("/")) {
+      jwkUri = normalizeUrl(identityProviderUrl + jwkUri);
+    }
+
+    if (REPLACE_HOST_AND_PORT) {
+      jwkUri = replaceHostAndPort(jwkUri, identityProviderUrl);
+    }
+
+    LOGGER.trace("jwk uri from openid configuration: {}", jwkUri);
+    return jwkUri;
+  }
+
+  @Nullable
+  private String getJwkEndpointUrl(@Nonnull String identityProviderUrl)
+      throws URISyntaxException, KeySourceException {
+    String configurationUrl =
+        normalizeUrl(identityProviderUrl + "/.well-known/openid-configuration");
+    CircuitBreaker circuitBreaker = circuitBreaker(configurationUrl);
+    circuitBreaker.acquire(System.currentTimeMillis());
+    try {
+      Map<String, Object> response =
+          transport.send(TransportRequest.get(configurationUrl).timeout(jwksReadTimeout));
+      requireNonNull(response,
+          () -> String.format(
+              "JWK endpoint cannot be obtained: invalid response from: %s", configurationUrl));
+      circuitBreaker.onSuccess();
+      return (String) response.get("jwks_uri");
+    } catch (IOException | RuntimeException e) {
+      circuitBreaker.onFailure(System.currentTimeMillis());
+      throw new KeySourceException("Cannot obtain openid configuration from " + configurationUrl,
+          e);
+    }
+  }
+
+  /**
+   * Merges handler options with options from reloadable file. Options which cannot be reloaded
+   * are ignored.
+   *
+   * @param fileOptions options from reloadable file
+   * @return effective handler options
+   */
+  @Nonnull
+  private Map<String, String> effectiveOptions(@Nonnull Map<String, String> fileOptions) {
+    Map<String, String> effectiveOptions = new HashMap<>(options);
+    fileOptions.forEach((name, value) -> {
+      if (ValidatorSettings.RELOADABLE_OPTIONS.contains(name)) {
+        effectiveOptions.put(name, value);
+      } else {
+        LOGGER.warn("Option {} cannot be reloaded and is ignored", name);
+      }
+    });
+    return effectiveOptions;
+  }
+
+  /**
+   * Switches to settings from reloaded options. Key material and validated tokens of Identity
+   * Providers whose url, profile and keys are not changed are kept, so they do not need to be
+   * loaded and validated again.
+   *
+   * @param fileOptions options from reloadable file
+   */
+  private void reconfigure(@Nonnull Map<String, String> fileOptions) {
+    Map<String, String> effectiveOptions = effectiveOptions(fileOptions);
+    ValidatorSettings previous = settings;
+    if (ValidatorSettings.reloadableOptions(effectiveOptions).equals(previous.options())) {
+      return;
+    }
+    ValidatorSettings next;
+    try {
+      next = ValidatorSettings.create(effectiveOptions, previous);
+    } catch (RuntimeException e) {
+      LOGGER.error("Cannot apply reloaded options, previous options are used", e);
+      return;
+    }
+    reconfigureLock.writeLock().lock();
+    try {
+      settings = next;
+      jwks.forEach((identityProviderUrl, issuerKeys) -> {
+        if (!next.trustsSameAs(previous, identityProviderUrl)
+            && jwks.remove(identityProviderUrl, issuerKeys)) {
+          LOGGER.info("Keys of Identity Provider {} are released after options reload",
+              identityProviderUrl);
+          issuerKeys.close();
+        }
+      });
+    } finally {
+      reconfigureLock.writeLock().unlock();
+    }
+    if (next.keyStoreSource() != previous.keyStoreSource()) {
+      if (previous.keyStoreSource() != null) {
+        previous.keyStoreSource().unwatch();
+      }
+      if (next.keyStoreSource() != null) {
+        next.keyStoreSource().watch(backgroundExecutor, keystoreReloadInterval);
+      }
+    }
+    tokenCache.invalidateIf(token -> !next.trustsSameAs(previous, token.issuer()));
+    rejectedTokenCache.invalidateAll();
+  }
+
+  /**
+   * Describes Identity Providers whose keys have been loaded.
+   *
+   * @return one line per Identity Provider with its key IDs and age of its key table
+   */
+  @Nonnull
+  List<String> describeIssuers() {
+    long now = System.currentTimeMillis();
+    List<String> issuers = new ArrayList<>();
+    for (Map.Entry<String, IssuerKeys> entry : new TreeMap<>(jwks).entrySet()) {
+      IssuerKeys issuerKeys = entry.getValue();
+      long updatedAt = issuerKeys.updatedAt();
+      issuers.add(String.format("%s keys=%s age=%s", entry.getKey(), issuerKeys.keyIds(),
+          updatedAt > 0 ? (now - updatedAt) + "ms" : "n/a"));
+    }
+    return issuers;
+  }
+
+  /**
+   * Reloads keystore and requests reload of JWK sets of all loaded Identity Providers. Failures
+   * are logged, previously loaded keys stay in use.
+   */
+  void refreshKeys() {
+    KeyStoreJWKSetSource keyStoreSource = settings.keyStoreSource();
+    if (keyStoreSource != null) {
+      try {
+        keyStoreSource.reload();
+      } catch (IOException | GeneralSecurityException e) {
+        LOGGER.warn("Cannot reload keystore, previously loaded keys are used", e);
+      }
+    }
+    jwks.forEach((identityProviderUrl, issuerKeys) -> {
+      try {
+        issuerKeys.refresh();
+      } catch (KeySourceException e) {
+        LOGGER.warn("Cannot refresh keys of Identity Provider {}", identityProviderUrl, e);
+      }
+    });
+  }
+
+  /**
+   * Evicts validated and introspected tokens of the principal, so its next authentication is
+   * fully validated again.
+   *
+   * @param principalName name of principal
+   */
+  void evictPrincipal(@Nonnull String principalName) {
+    tokenCache.invalidateIf(token -> principalName.equals(token.principalName()));
+    if (tokenIntrospector != null) {
+      tokenIntrospector.invalidateIf(token -> principalName.equals(token.principalName()));
+    }
+  }
+
+  /**
+   * Evicts all validated, rejected and introspected tokens.
+   */
+  void invalidateTokenCaches() {
+    tokenCache.invalidateIf(token -> true);
+    rejectedTokenCache.invalidateAll();
+    if (tokenIntrospector != null) {
+      tokenIntrospector.invalidateIf(token -> true);
+    }
+  }
+
+  /**
+   * Stops background tasks and releases key sources and Identity Provider clients.
+   */
+  void close() {
+    if (optionsFile != null) {
+      optionsFile.unwatch();
+    }
+    jwks.values().forEach(IssuerKeys::close);
+    jwks.clear();
+    circuitBreakers.invalidateAll();
+    KeyStoreJWKSetSource keyStoreSource = settings.keyStoreSource();
+    if (keyStoreSource != null) {
+      keyStoreSource.unwatch();
+    }
+    if (revocationList != null) {
+      revocationList.unwatch();
+    }
+    failureReporter.close();
+    successLogger.flush();
+    backgroundExecutor.shutdownNow();
+    jwksRefreshExecutor.shutdownNow();
+    if (transport != null) {
+      transport.close();
+    }
+    // stats are not created yet if construction has failed before JMX registration
+    if (stats != null) {
+      stats.unregister();
+    }
+    if (admin != null) {
+      admin.unregister();
+    }
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public class AdmissionLimiterTest {
+
+  @Test
+  public void testUnlimitedWhenDisabled() throws Exception {
+    AdmissionLimiter limiter = new AdmissionLimiter(0, AdmissionLimiter.OverflowPolicy.REJECT, 0);
+    for (int i = 0; i < 100; i++) {
+      limiter.acquire();
+    }
+    assertThat(limiter.active(), equalTo(0));
+    assertThat(limiter.rejections(), equalTo(0L));
+  }
+
+  @Test
+  public void testRejectOverflow() throws Exception {
+    AdmissionLimiter limiter = new AdmissionLimiter(2, AdmissionLimiter.OverflowPolicy.REJECT, 0);
+    limiter.acquire();
+    limiter.acquire();
+    assertThat(limiter.active(), equalTo(2));
+    try {
+      limiter.acquire();
+    } catch (AdmissionRejectedException e) {
+      // expected
+    }
+    assertThat(limiter.rejections(), equalTo(1L));
+    assertThat(limiter.queued(), equalTo(0L));
+
+    limiter.release();
+    limiter.acquire();
+    assertThat(limiter.active(), equalTo(2));
+  }
+
+  @Test
+  public void testQueueOverflowUntilPermitIsReleased() throws Exception {
+    AdmissionLimiter limiter =
+        new AdmissionLimiter(1, AdmissionLimiter.OverflowPolicy.QUEUE, 10000);
+    limiter.acquire();
+    Thread releaser = new Thread(() -> {
+      try {
+        Thread.sleep(100);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      limiter.release();
+    });
+    releaser.start();
+    limiter.acquire();
+    releaser.join();
+    assertThat(limiter.queued(), equalTo(1L));
+    assertThat(limiter.rejections(), equalTo(0L));
+    assertThat(limiter.active(), equalTo(1));
+  }
+
+  @Test(expected = AdmissionRejectedException.class)
+  public void testRejectQueuedValidationAfterTimeout() throws Exception {
+    AdmissionLimiter limiter = new AdmissionLimiter(1, AdmissionLimiter.OverflowPolicy.QUEUE, 50);
+    limiter.acquire();
+    limiter.acquire();
+  }
+
+  @Test
+  public void testParseOverflowPolicy() {
+    assertThat(AdmissionLimiter.OverflowPolicy.parse(null),
+        equalTo(AdmissionLimiter.OverflowPolicy.REJECT));
+    assertThat(AdmissionLimiter.OverflowPolicy.parse("queue"),
+        equalTo(AdmissionLimiter.OverflowPolicy.QUEUE));
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nonnull;
+import org.junit.Test;
+
+public class CircuitBreakerTest {
+
+  private static final String ENDPOINT = "http://localhost:8080/protocol/openid-connect/certs";
+
+  private final List<CircuitBreaker.State> transitions = new ArrayList<>();
+  private int rejections;
+  private final CircuitBreaker circuitBreaker =
+      new CircuitBreaker(ENDPOINT, 2, 1000, new CircuitBreaker.Listener() {
+        @Override
+        public void onStateChange(@Nonnull String endpoint, @Nonnull CircuitBreaker.State from,
+            @Nonnull CircuitBreaker.State to) {
+          transitions.add(to);
+        }
+
+        @Override
+        public void onRejection(@Nonnull String endpoint) {
+          rejections++;
+        }
+      });
+
+  @Test
+  public void testOpenAfterConsecutiveFailures() throws Exception {
+    circuitBreaker.acquire(0);
+    circuitBreaker.onFailure(0);
+    circuitBreaker.acquire(0);
+    circuitBreaker.onSuccess();
+    circuitBreaker.acquire(0);
+    circuitBreaker.onFailure(0);
+    assertThat(circuitBreaker.state(), equalTo(CircuitBreaker.State.CLOSED));
+    circuitBreaker.acquire(0);
+    circuitBreaker.onFailure(0);
+    assertThat(circuitBreaker.state(), equalTo(CircuitBreaker.State.OPEN));
+  }
+
+  @Test
+  public void testFailFastWhenOpen() throws Exception {
+    open();
+    try {
+      circuitBreaker.acquire(999);
+    } catch (CircuitOpenException e) {
+      assertThat(rejections, equalTo(1));
+      return;
+    }
+    throw new AssertionError("Request must not be allowed when circuit is open");
+  }
+
+  @Test
+  public void testCloseAfterSuccessfulProbe() throws Exception {
+    open();
+    circuitBreaker.acquire(1000);
+    assertThat(circuitBreaker.state(), equalTo(CircuitBreaker.State.HALF_OPEN));
+    circuitBreaker.onSuccess();
+    assertThat(transitions, contains(CircuitBreaker.State.OPEN, CircuitBreaker.State.HALF_OPEN,
+        CircuitBreaker.State.CLOSED));
+  }
+
+  @Test
+  public void testAllowOneProbeAtTime() throws Exception {
+    open();
+    circuitBreaker.acquire(1000);
+    try {
+      circuitBreaker.acquire(1000);
+      throw new AssertionError("Only one probe request must be allowed");
+    } catch (CircuitOpenException e) {
+      assertThat(rejections, equalTo(1));
+    }
+  }
+
+  @Test
+  public void testReopenAfterFailedProbe() throws Exception {
+    open();
+    circuitBreaker.acquire(1000);
+    circuitBreaker.onFailure(1000);
+    assertThat(circuitBreaker.state(), equalTo(CircuitBreaker.State.OPEN));
+    circuitBreaker.acquire(2000);
+    assertThat(circuitBreaker.state(), equalTo(CircuitBreaker.State.HALF_OPEN));
+  }
+
+  private void open() throws CircuitOpenException {
+    for (int i = 0; i < 2; i++) {
+      circuitBreaker.acquire(0);
+      circuitBreaker.onFailure(0);
+    }
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+
+public class ClaimsPolicyTest {
+
+  private static Map<String, Object> claims() {
+    Map<String, Object> claims = new HashMap<>();
+    claims.put("aud", Arrays.asList("account", "kafka"));
+    claims.put("azp", "kafka-client");
+    claims.put("scope", "email profile");
+    claims.put("email_verified", true);
+    claims.put("realm_access", Collections.singletonMap("roles", Arrays.asList("kafka-user")));
+    return claims;
+  }
+
+  @Test
+  public void testAcceptSatisfiedPolicy() throws Exception {
+    ClaimsPolicy.compile("aud contains kafka; azp = kafka-client, kafka-ui; scope contains email;"
+        + " email_verified = true; realm_access.roles contains kafka-user; azp != admin-cli;"
+        + " azp matches kafka-.*; realm_access exists").check(claims());
+  }
+
+  @Test
+  public void testEmptyPolicy() throws Exception {
+    assertThat(ClaimsPolicy.compile(" ; ").isEmpty(), equalTo(true));
+    ClaimsPolicy.compile(null).check(Collections.emptyMap());
+  }
+
+  @Test
+  public void testRejectMissingClaim() {
+    assertRejected("aud contains kafka; client_id exists",
+        "Token does not have required claim 'client_id'");
+  }
+
+  @Test
+  public void testRejectNotAllowedValue() {
+    assertRejected("azp = kafka-ui", "Token claim 'azp' must be one of [kafka-ui]");
+    assertRejected("azp != kafka-client", "Token claim 'azp' must not be one of [kafka-client]");
+    assertRejected("aud = kafka", "Token claim 'aud' must be one of [kafka]");
+  }
+
+  @Test
+  public void testRejectMissingItem() {
+    assertRejected("aud contains kafka, admin", "Token claim 'aud' must contain [kafka, admin]");
+    assertRejected("realm_access.roles contains kafka-admin",
+        "Token claim 'realm_access.roles' must contain [kafka-admin]");
+  }
+
+  @Test
+  public void testRejectNotMatchingValue() {
+    assertRejected("azp matches admin-.*", "Token claim 'azp' must match 'admin-.*'");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testThrowErrorOnUnknownOperator() {
+    ClaimsPolicy.compile("azp like kafka");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testThrowErrorOnMissingValue() {
+    ClaimsPolicy.compile("azp =");
+  }
+
+  private static void assertRejected(String policy, String reason) {
+    try {
+      ClaimsPolicy.compile(policy).check(claims());
+      fail("Claims must violate policy " + policy);
+    } catch (TokenPrecheckException e) {
+      assertThat(e.getMessage(), equalTo(reason));
+      assertThat(e.stage(), equalTo(ValidationStage.CLAIMS));
+    }
+  }
+}
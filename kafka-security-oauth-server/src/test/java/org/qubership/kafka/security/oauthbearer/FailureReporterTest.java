@@ -0,0 +1,71 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+public class FailureReporterTest {
+
+  private static final String DESCRIPTION = "Cannot verify token using wrong algorithm";
+  private static final String ISSUER = "http://localhost:8080";
+
+  private final FailureReporter failureReporter =
+      new FailureReporter(LoggerFactory.getLogger(FailureReporterTest.class), 60000);
+  private final Exception exception = new IllegalArgumentException("Invalid token");
+
+  @Test
+  public void testReportFirstFailureOnly() {
+    assertThat(failureReporter.report(DESCRIPTION, exception, "alice", ISSUER), equalTo(true));
+    assertThat(failureReporter.report(DESCRIPTION, exception, "alice", ISSUER), equalTo(false));
+  }
+
+  @Test
+  public void testGroupFailuresByReasonPrincipalAndIssuer() {
+    failureReporter.report(DESCRIPTION, exception, "alice", ISSUER);
+    assertThat(failureReporter.report(DESCRIPTION, exception, "bob", ISSUER), equalTo(true));
+    assertThat(failureReporter.report(DESCRIPTION, exception, "alice", null), equalTo(true));
+    assertThat(failureReporter.report("Token is expired", exception, "alice", ISSUER),
+        equalTo(true));
+  }
+
+  @Test
+  public void testKeepGroupWhileFailuresRepeat() {
+    failureReporter.report(DESCRIPTION, exception, "alice", ISSUER);
+    failureReporter.report(DESCRIPTION, exception, "alice", ISSUER);
+    failureReporter.reportRepeated();
+    assertThat(failureReporter.report(DESCRIPTION, exception, "alice", ISSUER), equalTo(false));
+  }
+
+  @Test
+  public void testForgetGroupWithoutRepeatedFailures() {
+    failureReporter.report(DESCRIPTION, exception, "alice", ISSUER);
+    failureReporter.reportRepeated();
+    assertThat(failureReporter.report(DESCRIPTION, exception, "alice", ISSUER), equalTo(true));
+  }
+
+  @Test
+  public void testReportEveryFailureWithoutInterval() {
+    FailureReporter reporter =
+        new FailureReporter(LoggerFactory.getLogger(FailureReporterTest.class), 0);
+    reporter.report(DESCRIPTION, exception, "alice", ISSUER);
+    assertThat(reporter.report(DESCRIPTION, exception, "alice", ISSUER), equalTo(true));
+  }
+}
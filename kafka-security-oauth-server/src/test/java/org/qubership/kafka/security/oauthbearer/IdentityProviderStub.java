@@ -0,0 +1,142 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Identity Provider which serves OpenID configuration and JWKS of one realm on localhost.
+ */
+final class IdentityProviderStub implements AutoCloseable {
+
+  private static final String CONFIGURATION_PATH = "/.well-known/openid-configuration";
+
+  private final HttpServer server;
+  private final RSAKey key;
+  private final AtomicInteger discoveryRequests = new AtomicInteger();
+  private final AtomicInteger jwksRequests = new AtomicInteger();
+  private final CountDownLatch released = new CountDownLatch(1);
+  private volatile String jwksPath = "/certs";
+  private volatile boolean jwksStalled;
+
+  IdentityProviderStub() throws Exception {
+    key = new RSAKeyGenerator(2048).keyID("stub").generate();
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/", this::handle);
+    server.start();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    String path = exchange.getRequestURI().getPath();
+    String response = null;
+    if (path.endsWith(CONFIGURATION_PATH)) {
+      discoveryRequests.incrementAndGet();
+      if (path.equals("/realms/master" + CONFIGURATION_PATH)) {
+        response = jwksPath != null ? "{\"jwks_uri\": \"" + url() + jwksPath + "\"}" : "{}";
+      }
+    } else if (path.equals("/realms/master/introspect")) {
+      response = "{\"active\": true, \"sub\": \"alice\", \"azp\": \"kafka-test\","
+          + " \"aud\": \"account\", \"exp\": " + (System.currentTimeMillis() / 1000 + 60) + "}";
+    } else if (jwksPath != null && path.equals("/realms/master" + jwksPath)) {
+      jwksRequests.incrementAndGet();
+      if (jwksStalled) {
+        try {
+          released.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      response = new JWKSet(key.toPublicJWK()).toString();
+    }
+    if (response == null) {
+      exchange.sendResponseHeaders(404, -1);
+      exchange.close();
+      return;
+    }
+    byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(200, bytes.length);
+    try (OutputStream outputStream = exchange.getResponseBody()) {
+      outputStream.write(bytes);
+    }
+  }
+
+  String url() {
+    return "http://localhost:" + server.getAddress().getPort() + "/realms/master";
+  }
+
+  JWKSet jwkSet() {
+    return new JWKSet(key.toPublicJWK());
+  }
+
+  void setJwksPath(String jwksPath) {
+    this.jwksPath = jwksPath;
+  }
+
+  /**
+   * Makes JWKS requests hang until the stub is closed.
+   */
+  void stallJwks() {
+    jwksStalled = true;
+  }
+
+  int discoveryRequests() {
+    return discoveryRequests.get();
+  }
+
+  int jwksRequests() {
+    return jwksRequests.get();
+  }
+
+  OAuthBearerJwt sign(String subject) throws Exception {
+    return sign(subject, url());
+  }
+
+  OAuthBearerJwt sign(String subject, String issuer) throws Exception {
+    SignedJWT jwt = new SignedJWT(
+        new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(),
+        new JWTClaimsSet.Builder()
+            .issuer(issuer)
+            .subject(subject)
+            .expirationTime(new Date(System.currentTimeMillis() + 60000))
+            .build());
+    jwt.sign(new RSASSASigner(key));
+    return new OAuthBearerJwt(jwt.serialize());
+  }
+
+  @Override
+  public void close() {
+    released.countDown();
+    server.stop(0);
+  }
+}
@@ -17,8 +17,12 @@
 package org.qubership.kafka.security.oauthbearer;
 
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 
+import java.util.Arrays;
+import java.util.Collections;
 import org.junit.Test;
 
 public class IdentityProviderUrlResolverTest {
@@ -73,4 +77,94 @@ public class IdentityProviderUrlResolverTest {
     IdentityProviderUrlResolver resolver = IdentityProviderUrlResolver.create(null);
     resolver.resolveUrl("http://external:81");
   }
+
+  @Test
+  public void testReturnDistinctTrustedUrls() {
+    String whitelist = "[{'internal': 'http://internal:8080', 'external': 'http://external:80'},"
+        + "{'internal': 'http://internal:8080', 'external': 'http://external:8080'},"
+        + "{'external': 'http://external:81'}]";
+    IdentityProviderUrlResolver resolver = IdentityProviderUrlResolver.create(whitelist);
+    assertThat(resolver.trustedUrls(),
+        equalTo(Arrays.asList("http://internal:8080", "http://external:81")));
+  }
+
+  @Test
+  public void testResolveNormalizedUrl() throws Exception {
+    String whitelist = "[{'internal': 'http://internal:8080', 'external': 'HTTP://External:80/'}]";
+    IdentityProviderUrlResolver resolver = IdentityProviderUrlResolver.create(whitelist);
+    assertThat(resolver.resolveUrl("http://external:80"), equalTo("http://internal:8080"));
+    assertThat(resolver.resolveUrl("http://EXTERNAL:80//"), equalTo("http://internal:8080"));
+  }
+
+  @Test(expected = IssuerNotTrustedException.class)
+  public void testCompareUrlPathCaseSensitively() throws Exception {
+    String whitelist = "[{'external': 'http://external:80/realms/test'}]";
+    IdentityProviderUrlResolver resolver = IdentityProviderUrlResolver.create(whitelist);
+    resolver.resolveUrl("http://external:80/realms/TEST");
+  }
+
+  @Test
+  public void testResolveInternalUrlByPattern() throws Exception {
+    String whitelist = "[{'internal': 'http://internal:8080/realms/*',"
+        + " 'external': 'https://sso.example.com/realms/*'}]";
+    IdentityProviderUrlResolver resolver = IdentityProviderUrlResolver.create(whitelist);
+    assertThat(resolver.resolveUrl("https://sso.example.com/realms/first"),
+        equalTo("http://internal:8080/realms/first"));
+    assertThat(resolver.resolveUrl("https://sso.example.com/realms/first/"),
+        equalTo("http://internal:8080/realms/first"));
+    assertThat(resolver.resolveUrl("http://internal:8080/realms/second"),
+        equalTo("http://internal:8080/realms/second"));
+    assertThat(resolver.trustedUrls(), equalTo(Collections.<String>emptyList()));
+  }
+
+  @Test(expected = IssuerNotTrustedException.class)
+  public void testThrowErrorIfPatternDoesNotMatchOneSegment() throws Exception {
+    String whitelist = "[{'external': 'https://sso.example.com/realms/*'}]";
+    IdentityProviderUrlResolver resolver = IdentityProviderUrlResolver.create(whitelist);
+    resolver.resolveUrl("https://sso.example.com/realms/first/second");
+  }
+
+  @Test
+  public void testNotResolveUnsafeSegmentsByPattern() {
+    String whitelist = "[{'internal': 'http://internal:8080/realms/*',"
+        + " 'external': 'https://sso.example.com/realms/*'}]";
+    IdentityProviderUrlResolver resolver = IdentityProviderUrlResolver.create(whitelist);
+    for (String segment : Arrays.asList(".", "..", "first%2F..", "first?x=1", "first#x")) {
+      try {
+        resolver.resolveUrl("https://sso.example.com/realms/" + segment);
+        fail("Segment " + segment + " should not be trusted");
+      } catch (IssuerNotTrustedException e) {
+        // expected
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testThrowErrorIfPatternsHaveDifferentWildcards() {
+    IdentityProviderUrlResolver.create("[{'internal': 'http://internal:8080/realms/test',"
+        + " 'external': 'https://sso.example.com/realms/*'}]");
+  }
+
+  @Test
+  public void testResolveProfileTogetherWithUrl() throws Exception {
+    String whitelist = "[{'external': 'http://keycloak:8080/realms/*'},"
+        + "{'external': 'http://vault:8200/v1/identity/oidc', 'tokenRolesPath': 'groups',"
+        + " 'clockSkew': 30, 'audience': ['kafka'], 'jwkSourceType': 'keystore'}]";
+    IdentityProviderUrlResolver resolver =
+        IdentityProviderUrlResolver.create(whitelist, IssuerProfile.DEFAULT);
+
+    IdentityProviderUrlResolver.ResolvedIssuer keycloak =
+        resolver.resolve("http://keycloak:8080/realms/first");
+    assertThat(keycloak.profile(), sameInstance(IssuerProfile.DEFAULT));
+    IdentityProviderUrlResolver.ResolvedIssuer vault =
+        resolver.resolve("http://vault:8200/v1/identity/oidc");
+    assertThat(vault.url(), equalTo("http://vault:8200/v1/identity/oidc"));
+    assertThat(vault.profile().usesKeyStore(), equalTo(true));
+    assertThat(vault.profile().rolesExtractor().extract(
+        Collections.singletonMap("groups", Arrays.asList("admin"))),
+        equalTo(Collections.singleton("admin")));
+    assertThat(resolver.resolve("http://vault:8200/v1/identity/oidc/").profile(),
+        sameInstance(vault.profile()));
+    assertThat(resolver.profiles().size(), equalTo(2));
+  }
 }
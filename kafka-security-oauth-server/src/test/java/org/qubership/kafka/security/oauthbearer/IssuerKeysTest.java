@@ -0,0 +1,125 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.JWKSetCacheRefreshEvaluator;
+import com.nimbusds.jose.jwk.source.JWKSetSource;
+import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.jwt.proc.DefaultJWTClaimsVerifier;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IssuerKeysTest {
+
+  private RSAKey firstKey;
+  private RSAKey secondKey;
+  private final AtomicReference<JWKSet> jwkSet = new AtomicReference<>();
+  private final AtomicInteger rotations = new AtomicInteger();
+  private OAuthBearerValidatorStats stats;
+  private IssuerKeys issuerKeys;
+
+  @Before
+  public void setUp() throws Exception {
+    firstKey = new RSAKeyGenerator(2048).keyID("first").generate();
+    secondKey = new RSAKeyGenerator(2048).keyID("second").generate();
+    jwkSet.set(new JWKSet(firstKey.toPublicJWK()));
+    JWKSetSource<SecurityContext> source = new JWKSetSource<SecurityContext>() {
+      @Override
+      public JWKSet getJWKSet(JWKSetCacheRefreshEvaluator refreshEvaluator, long currentTime,
+          SecurityContext context) {
+        return jwkSet.get();
+      }
+
+      @Override
+      public void close() {
+      }
+    };
+    stats = new OAuthBearerValidatorStats(new ValidatedTokenCache(0, 0),
+        new RejectedTokenCache(0, 0), null, null, null);
+    issuerKeys = new IssuerKeys("http://localhost:8080", source,
+        new DefaultJWTClaimsVerifier<>(null, null), rotations::incrementAndGet,
+        new UnknownKeyGuard(0, 60000, stats));
+  }
+
+  private static String sign(RSAKey key, String subject) throws Exception {
+    SignedJWT jwt = new SignedJWT(
+        new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(),
+        new JWTClaimsSet.Builder()
+            .subject(subject)
+            .expirationTime(new Date(System.currentTimeMillis() + 60000))
+            .build());
+    jwt.sign(new RSASSASigner(key));
+    return jwt.serialize();
+  }
+
+  @Test
+  public void testReuseProcessorForAlgorithm() {
+    assertThat(issuerKeys.processor(JWSAlgorithm.RS256),
+        sameInstance(issuerKeys.processor(JWSAlgorithm.RS256)));
+  }
+
+  @Test
+  public void testVerifyTokenSignedWithKnownKey() throws Exception {
+    JWTClaimsSet claims =
+        issuerKeys.processor(JWSAlgorithm.RS256).process(sign(firstKey, "alice"), null);
+    assertThat(claims.getSubject(), equalTo("alice"));
+  }
+
+  @Test(expected = BadJOSEException.class)
+  public void testRejectTokenSignedWithUnknownKey() throws Exception {
+    issuerKeys.processor(JWSAlgorithm.RS256).process(sign(secondKey, "alice"), null);
+  }
+
+  @Test
+  public void testNotifyAboutRotatedKeys() throws Exception {
+    issuerKeys.processor(JWSAlgorithm.RS256).process(sign(firstKey, "alice"), null);
+    jwkSet.set(new JWKSet(secondKey.toPublicJWK()));
+    JWTClaimsSet claims =
+        issuerKeys.processor(JWSAlgorithm.RS256).process(sign(secondKey, "bob"), null);
+    assertThat(claims.getSubject(), equalTo("bob"));
+    assertThat(rotations.get(), equalTo(1));
+  }
+
+  @Test
+  public void testRejectUnknownKeyWithoutRefetch() throws Exception {
+    for (int i = 0; i < 2; i++) {
+      try {
+        issuerKeys.processor(JWSAlgorithm.RS256).process(sign(secondKey, "alice"), null);
+      } catch (BadJOSEException e) {
+        // expected
+      }
+    }
+    assertThat(stats.getUnknownKeyRefetches(), equalTo(1L));
+    assertThat(stats.getUnknownKeyNegativeCacheHits(), equalTo(1L));
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import java.io.File;
+import java.nio.file.Files;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JwksSnapshotStoreTest {
+
+  private static final String IDENTITY_PROVIDER_URL = "http://localhost:8080/auth/realms/master";
+  private static final String JWKS_URI = IDENTITY_PROVIDER_URL + "/protocol/openid-connect/certs";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testReadSavedSnapshot() throws Exception {
+    JwksSnapshotStore store = new JwksSnapshotStore(folder.getRoot().toPath().resolve("jwks"));
+    RSAKey key = new RSAKeyGenerator(2048).keyID("first").generate();
+    store.save(IDENTITY_PROVIDER_URL, JWKS_URI, new JWKSet(key));
+
+    JwksSnapshotStore.Snapshot snapshot = store.read(IDENTITY_PROVIDER_URL);
+    assertThat(snapshot.jwksUri(), equalTo(JWKS_URI));
+    assertThat(snapshot.jwkSet().getKeys().size(), equalTo(1));
+    assertThat(snapshot.jwkSet().getKeys().get(0), equalTo(key.toPublicJWK()));
+  }
+
+  @Test
+  public void testReadMissingSnapshot() {
+    JwksSnapshotStore store = new JwksSnapshotStore(folder.getRoot().toPath());
+    assertThat(store.read(IDENTITY_PROVIDER_URL), nullValue());
+  }
+
+  @Test
+  public void testIgnoreBrokenSnapshot() throws Exception {
+    JwksSnapshotStore store = new JwksSnapshotStore(folder.getRoot().toPath());
+    RSAKey key = new RSAKeyGenerator(2048).keyID("first").generate();
+    store.save(IDENTITY_PROVIDER_URL, JWKS_URI, new JWKSet(key));
+    for (File file : folder.getRoot().listFiles()) {
+      Files.write(file.toPath(), "{\"issuer\":".getBytes());
+    }
+    assertThat(store.read(IDENTITY_PROVIDER_URL), nullValue());
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSetCacheRefreshEvaluator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class KeyStoreJWKSetSourceTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private Path keystore;
+
+  @Before
+  public void setUp() throws Exception {
+    keystore = folder.getRoot().toPath().resolve("public_certs.jks");
+    try (InputStream inputStream = getClass().getResourceAsStream("test_keystore.jks")) {
+      Files.copy(inputStream, keystore, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  private static JWKSet jwkSet(KeyStoreJWKSetSource source) throws Exception {
+    return source.getJWKSet(JWKSetCacheRefreshEvaluator.noRefresh(), 0, null);
+  }
+
+  @Test
+  public void testReloadOnlyChangedKeystore() throws Exception {
+    KeyStoreJWKSetSource source = new KeyStoreJWKSetSource(keystore, "JKS", "changeit");
+    assertThat(source.reload(), equalTo(true));
+    JWKSet loaded = jwkSet(source);
+    assertThat(source.reload(), equalTo(false));
+    assertThat(jwkSet(source), sameInstance(loaded));
+
+    Files.setLastModifiedTime(keystore,
+        FileTime.fromMillis(Files.getLastModifiedTime(keystore).toMillis() + 1000));
+    assertThat(source.reload(), equalTo(true));
+    assertThat(jwkSet(source), not(sameInstance(loaded)));
+    assertThat(new KeyTable(loaded).hasSameKeys(jwkSet(source)), equalTo(true));
+  }
+
+  @Test
+  public void testKeepPreviousKeysWhenKeystoreIsBroken() throws Exception {
+    KeyStoreJWKSetSource source = new KeyStoreJWKSetSource(keystore, "JKS", "changeit");
+    source.reload();
+    JWKSet loaded = jwkSet(source);
+    Files.write(keystore, new byte[] {1, 2, 3});
+    try {
+      source.reload();
+    } catch (IOException e) {
+      // expected
+    }
+    assertThat(jwkSet(source), sameInstance(loaded));
+    source.ensureLoaded();
+  }
+
+  @Test(expected = IOException.class)
+  public void testFailWhenKeystoreIsNotLoaded() throws Exception {
+    KeyStoreJWKSetSource source = new KeyStoreJWKSetSource(keystore, "JKS", "invalid");
+    try {
+      source.reload();
+    } catch (IOException e) {
+      // expected
+    }
+    source.ensureLoaded();
+  }
+}
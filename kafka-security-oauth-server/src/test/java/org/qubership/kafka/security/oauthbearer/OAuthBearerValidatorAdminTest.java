@@ -0,0 +1,85 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OAuthBearerValidatorAdminTest {
+
+  private ValidatorState state;
+  private OAuthBearerValidatorAdmin admin;
+
+  @Before
+  public void setUp() {
+    Map<String, String> options = new HashMap<>();
+    options.put("idpWhitelist", "[{'external': 'http://localhost:8090/auth/realms/master',"
+        + "'internal':'http://keycloak:8080/auth/realms/master'}]");
+    options.put("jwkSourceType", "keystore");
+    options.put("keystorePath", this.getClass().getResource("test_keystore.jks").getPath());
+    options.put("keystorePassword", "changeit");
+    options.put("warmUpEnabled", "true");
+    state = ValidatorState.create(options);
+    state.warmUp();
+    admin = new OAuthBearerValidatorAdmin(state);
+  }
+
+  @After
+  public void tearDown() {
+    state.close();
+  }
+
+  @Test
+  public void testDescribeLoadedIssuers() {
+    String[] issuers = admin.getIssuers();
+    assertThat(issuers.length, equalTo(1));
+    assertThat(issuers[0], containsString("keys=["));
+    assertThat(issuers[0], not(containsString("age=n/a")));
+  }
+
+  @Test
+  public void testRefreshKeysKeepsIssuers() {
+    admin.refreshKeys();
+    assertThat(admin.getIssuers().length, equalTo(1));
+  }
+
+  @Test
+  public void testEvictPrincipal() {
+    state.tokenCache().put("alice-digest", TestTokens.validatedToken("alice"));
+    state.tokenCache().put("bob-digest", TestTokens.validatedToken("bob"));
+    admin.evictPrincipal("alice");
+    assertThat(state.tokenCache().get("alice-digest") == null, equalTo(true));
+    assertThat(state.tokenCache().get("bob-digest") == null, equalTo(false));
+  }
+
+  @Test
+  public void testInvalidateTokenCaches() {
+    state.tokenCache().put("alice-digest", TestTokens.validatedToken("alice"));
+    state.rejectedTokenCache().put("bob-digest", "Token is revoked", "bob");
+    admin.invalidateTokenCaches();
+    assertThat(state.tokenCache().size(), equalTo(0L));
+    assertThat(state.rejectedTokenCache().size(), equalTo(0L));
+  }
+}
@@ -16,28 +16,56 @@
 
 package org.qubership.kafka.security.oauthbearer;
 
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import com.nimbusds.jose.KeySourceException;
 import com.nimbusds.jose.proc.BadJWSException;
+import com.nimbusds.jwt.JWT;
+import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.proc.BadJWTException;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.security.auth.callback.Callback;
+import javax.security.auth.login.AppConfigurationEntry;
+import org.apache.kafka.common.security.oauthbearer.OAuthBearerLoginModule;
 import org.apache.kafka.common.security.oauthbearer.OAuthBearerToken;
+import org.apache.kafka.common.security.oauthbearer.OAuthBearerValidatorCallback;
+import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 public class OAuthBearerValidatorCallbackHandlerTest {
 
   private static final OAuthBearerJwt validToken = new OAuthBearerJwt(
-      "eyJhbGciOiJSUzI1NiIsInR5cCIgOiAiSldUIiwia2lkIiA6ICJOSFpUQ1hDSlFpVVRQcFZiWW91TG42M3E4aW02UU1ZaUVTR2xEb3dodm53In0.eyJleHAiOjE1OTI0MDA0MTUsImlhdCI6MTU5MjQwMDM1NSwianRpIjoiODg4MmRlMDItMzZlNS00M2YxLThiOTAtMzY1MDRlOGY0ZTdkIiwiaXNzIjoiaHR0cDovL2xvY2FsaG9zdDo4MDkwL2F1dGgvcmVhbG1zL21hc3RlciIsImF1ZCI6ImFjY291bnQiLCJzdWIiOiI0Zjk3ODQxNC1jYTdjLTQ5ZDItOWI0NS1lNzYwMzc3ZmM0ZjMiLCJ0eXAiOiJCZWFyZXIiLCJhenAiOiJrYWZrYS10ZXN0Iiwic2Vzc2lvbl9zdGF0ZSI6IjZmNDlkMDQ5LTg4ZGQtNDQwMC05NGM3LWU2MzljOTJmY2FhNyIsImFjciI6IjEiLCJyZWFsbV9hY2Nlc3MiOnsicm9sZXMiOlsib2ZmbGluZV9hY2Nlc3MiLCJ1bWFfYXV0aG9yaXphdGlvbiJdfSwicmVzb3VyY2VfYWNjZXNzIjp7ImFjY291bnQiOnsicm9sZXMiOlsibWFuYWdlLWFjY291bnQiLCJtYW5hZ2UtYWNjb3VudC1saW5rcyIsInZpZXctcHJvZmlsZSJdfX0sInNjb3BlIjoiZW1haWwgcHJvZmlsZSIsImNsaWVudElkIjoia2Fma2EtdGVzdCIsImNsaWVudEhvc3QiOiIxNzIuMTguMC4xIiwiZW1haWxfdmVyaWZpZWQiOmZhbHNlLCJwcmVmZXJyZWRfdXNlcm5hbWUiOiJzZXJ2aWNlLWFjY291bnQta2Fma2EtdGVzdCIsImNsaWVudEFkZHJlc3MiOiIxNzIuMTguMC4xIn0.W1iQwap8hXhrZEmi4hCiUajpuJxHXUfZjQoCsBK9gW67mwr1O65iwBVuDuDPyPQw5vE8Lyo7g3y_A6jm9b2-NWS3Fhjql870Pq1IEibfbMVl5bMkivcBgqtus1pBXxXHW_7gzBsHtC2X1lHbFDAEl1UnYJa2OGMfyocSUbHUj-IYAeMHj6gmZzT5EKzdgWzJBFHGle-5YrEMen8tixwf53OxKBrK3NmFQRB8AaU1zqNjD1NOtwkDOf_n83jT-uKKb4oxgI9yrMMPvj6mvxNSYZdjEIWBPRRnvVYl89V-bV8UHq8iwDIyelBGrp-HU0JErHQPl5j7-668l6iZ1qXhWQ",
-      "");
+      "eyJhbGciOiJSUzI1NiIsInR5cCIgOiAiSldUIiwia2lkIiA6ICJOSFpUQ1hDSlFpVVRQcFZiWW91TG42M3E4aW02UU1ZaUVTR2xEb3dodm53In0.eyJleHAiOjE1OTI0MDA0MTUsImlhdCI6MTU5MjQwMDM1NSwianRpIjoiODg4MmRlMDItMzZlNS00M2YxLThiOTAtMzY1MDRlOGY0ZTdkIiwiaXNzIjoiaHR0cDovL2xvY2FsaG9zdDo4MDkwL2F1dGgvcmVhbG1zL21hc3RlciIsImF1ZCI6ImFjY291bnQiLCJzdWIiOiI0Zjk3ODQxNC1jYTdjLTQ5ZDItOWI0NS1lNzYwMzc3ZmM0ZjMiLCJ0eXAiOiJCZWFyZXIiLCJhenAiOiJrYWZrYS10ZXN0Iiwic2Vzc2lvbl9zdGF0ZSI6IjZmNDlkMDQ5LTg4ZGQtNDQwMC05NGM3LWU2MzljOTJmY2FhNyIsImFjciI6IjEiLCJyZWFsbV9hY2Nlc3MiOnsicm9sZXMiOlsib2ZmbGluZV9hY2Nlc3MiLCJ1bWFfYXV0aG9yaXphdGlvbiJdfSwicmVzb3VyY2VfYWNjZXNzIjp7ImFjY291bnQiOnsicm9sZXMiOlsibWFuYWdlLWFjY291bnQiLCJtYW5hZ2UtYWNjb3VudC1saW5rcyIsInZpZXctcHJvZmlsZSJdfX0sInNjb3BlIjoiZW1haWwgcHJvZmlsZSIsImNsaWVudElkIjoia2Fma2EtdGVzdCIsImNsaWVudEhvc3QiOiIxNzIuMTguMC4xIiwiZW1haWxfdmVyaWZpZWQiOmZhbHNlLCJwcmVmZXJyZWRfdXNlcm5hbWUiOiJzZXJ2aWNlLWFjY291bnQta2Fma2EtdGVzdCIsImNsaWVudEFkZHJlc3MiOiIxNzIuMTguMC4xIn0.W1iQwap8hXhrZEmi4hCiUajpuJxHXUfZjQoCsBK9gW67mwr1O65iwBVuDuDPyPQw5vE8Lyo7g3y_A6jm9b2-NWS3Fhjql870Pq1IEibfbMVl5bMkivcBgqtus1pBXxXHW_7gzBsHtC2X1lHbFDAEl1UnYJa2OGMfyocSUbHUj-IYAeMHj6gmZzT5EKzdgWzJBFHGle-5YrEMen8tixwf53OxKBrK3NmFQRB8AaU1zqNjD1NOtwkDOf_n83jT-uKKb4oxgI9yrMMPvj6mvxNSYZdjEIWBPRRnvVYl89V-bV8UHq8iwDIyelBGrp-HU0JErHQPl5j7-668l6iZ1qXhWQ");
   private static final OAuthBearerJwt invalidToken = new OAuthBearerJwt(
-      "eyJhbGciOiJSUzI1NiIsInR5cCIgOiAiSldUIiwia2lkIiA6ICJOSFpUQ1hDSlFpVVRQcFZiWW91TG42M3E4aW02UU1ZaUVTR2xEb3dodm53In0.eyJleHAiOjE1OTI0MDA0MTUsImlhdCI6MTU5MjQwMDM1NSwianRpIjoiODg4MmRlMDItMzZlNS00M2YxLThiOTAtMzY1MDRlOGY0ZTdkIiwiaXNzIjoiaHR0cDovL2xvY2FsaG9zdDo4MDkwL2F1dGgvcmVhbG1zL21hc3RlciIsImF1ZCI6ImFjY291bnQiLCJzdWIiOiI0Zjk3ODQxNC1jYTdjLTQ5ZDItOWI0NS1lNzYwMzc3ZmM0ZjMiLCJ0eXAiOiJCZWFyZXIiLCJhenAiOiJrYWZrYS10ZXN0Iiwic2Vzc2lvbl9zdGF0ZSI6IjZmNDlkMDQ5LTg4ZGQtNDQwMC05NGM3LWU2MzljOTJmY2FhNyIsImFjciI6IjEiLCJyZWFsbV9hY2Nlc3MiOnsicm9sZXMiOlsib2ZmbGluZV9hY2Nlc3MiLCJ1bWFfYXV0aG9yaXphdGlvbiJdfSwicmVzb3VyY2VfYWNjZXNzIjp7ImFjY291bnQiOnsicm9sZXMiOlsiYWRtaW4iLCJtYW5hZ2UtYWNjb3VudCIsIm1hbmFnZS1hY2NvdW50LWxpbmtzIiwidmlldy1wcm9maWxlIl19fSwic2NvcGUiOiJlbWFpbCBwcm9maWxlIiwiY2xpZW50SWQiOiJrYWZrYS10ZXN0IiwiY2xpZW50SG9zdCI6IjE3Mi4xOC4wLjEiLCJlbWFpbF92ZXJpZmllZCI6ZmFsc2UsInByZWZlcnJlZF91c2VybmFtZSI6InNlcnZpY2UtYWNjb3VudC1rYWZrYS10ZXN0IiwiY2xpZW50QWRkcmVzcyI6IjE3Mi4xOC4wLjEifQ.W1iQwap8hXhrZEmi4hCiUajpuJxHXUfZjQoCsBK9gW67mwr1O65iwBVuDuDPyPQw5vE8Lyo7g3y_A6jm9b2-NWS3Fhjql870Pq1IEibfbMVl5bMkivcBgqtus1pBXxXHW_7gzBsHtC2X1lHbFDAEl1UnYJa2OGMfyocSUbHUj-IYAeMHj6gmZzT5EKzdgWzJBFHGle-5YrEMen8tixwf53OxKBrK3NmFQRB8AaU1zqNjD1NOtwkDOf_n83jT-uKKb4oxgI9yrMMPvj6mvxNSYZdjEIWBPRRnvVYl89V-bV8UHq8iwDIyelBGrp-HU0JErHQPl5j7-668l6iZ1qXhWQ",
-      "");
+      "eyJhbGciOiJSUzI1NiIsInR5cCIgOiAiSldUIiwia2lkIiA6ICJOSFpUQ1hDSlFpVVRQcFZiWW91TG42M3E4aW02UU1ZaUVTR2xEb3dodm53In0.eyJleHAiOjE1OTI0MDA0MTUsImlhdCI6MTU5MjQwMDM1NSwianRpIjoiODg4MmRlMDItMzZlNS00M2YxLThiOTAtMzY1MDRlOGY0ZTdkIiwiaXNzIjoiaHR0cDovL2xvY2FsaG9zdDo4MDkwL2F1dGgvcmVhbG1zL21hc3RlciIsImF1ZCI6ImFjY291bnQiLCJzdWIiOiI0Zjk3ODQxNC1jYTdjLTQ5ZDItOWI0NS1lNzYwMzc3ZmM0ZjMiLCJ0eXAiOiJCZWFyZXIiLCJhenAiOiJrYWZrYS10ZXN0Iiwic2Vzc2lvbl9zdGF0ZSI6IjZmNDlkMDQ5LTg4ZGQtNDQwMC05NGM3LWU2MzljOTJmY2FhNyIsImFjciI6IjEiLCJyZWFsbV9hY2Nlc3MiOnsicm9sZXMiOlsib2ZmbGluZV9hY2Nlc3MiLCJ1bWFfYXV0aG9yaXphdGlvbiJdfSwicmVzb3VyY2VfYWNjZXNzIjp7ImFjY291bnQiOnsicm9sZXMiOlsiYWRtaW4iLCJtYW5hZ2UtYWNjb3VudCIsIm1hbmFnZS1hY2NvdW50LWxpbmtzIiwidmlldy1wcm9maWxlIl19fSwic2NvcGUiOiJlbWFpbCBwcm9maWxlIiwiY2xpZW50SWQiOiJrYWZrYS10ZXN0IiwiY2xpZW50SG9zdCI6IjE3Mi4xOC4wLjEiLCJlbWFpbF92ZXJpZmllZCI6ZmFsc2UsInByZWZlcnJlZF91c2VybmFtZSI6InNlcnZpY2UtYWNjb3VudC1rYWZrYS10ZXN0IiwiY2xpZW50QWRkcmVzcyI6IjE3Mi4xOC4wLjEifQ.W1iQwap8hXhrZEmi4hCiUajpuJxHXUfZjQoCsBK9gW67mwr1O65iwBVuDuDPyPQw5vE8Lyo7g3y_A6jm9b2-NWS3Fhjql870Pq1IEibfbMVl5bMkivcBgqtus1pBXxXHW_7gzBsHtC2X1lHbFDAEl1UnYJa2OGMfyocSUbHUj-IYAeMHj6gmZzT5EKzdgWzJBFHGle-5YrEMen8tixwf53OxKBrK3NmFQRB8AaU1zqNjD1NOtwkDOf_n83jT-uKKb4oxgI9yrMMPvj6mvxNSYZdjEIWBPRRnvVYl89V-bV8UHq8iwDIyelBGrp-HU0JErHQPl5j7-668l6iZ1qXhWQ");
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
 
   private Map<String, String> options = new HashMap<>();
+  private final List<OAuthBearerValidatorCallbackHandler> handlers = new ArrayList<>();
 
   @Before
   public void setUp() throws Exception {
@@ -49,18 +77,58 @@ public class OAuthBearerValidatorCallbackHandlerTest {
     options.put("clockSkew", String.valueOf(Integer.MAX_VALUE));
   }
 
+  @After
+  public void tearDown() {
+    handlers.forEach(OAuthBearerValidatorCallbackHandler::close);
+  }
+
+  private OAuthBearerValidatorCallbackHandler newHandler() {
+    OAuthBearerValidatorCallbackHandler validatorCallbackHandler =
+        new OAuthBearerValidatorCallbackHandler();
+    handlers.add(validatorCallbackHandler);
+    return validatorCallbackHandler;
+  }
+
+  private static void configure(OAuthBearerValidatorCallbackHandler validatorCallbackHandler,
+      Map<String, String> options) {
+    AppConfigurationEntry jaasEntry = new AppConfigurationEntry(
+        OAuthBearerLoginModule.class.getName(),
+        AppConfigurationEntry.LoginModuleControlFlag.REQUIRED, options);
+    validatorCallbackHandler.configure(Collections.emptyMap(),
+        OAuthBearerLoginModule.OAUTHBEARER_MECHANISM, Collections.singletonList(jaasEntry));
+  }
+
   @Test
   public void verifyValidTokenWithKeystore() throws Exception {
-    OAuthBearerValidatorCallbackHandler validatorCallbackHandler = new OAuthBearerValidatorCallbackHandler();
+    OAuthBearerValidatorCallbackHandler validatorCallbackHandler = newHandler();
     validatorCallbackHandler.configureOptions(options);
 
     OAuthBearerToken oAuthBearerToken = validatorCallbackHandler.validateToken(validToken);
-    assertTrue(oAuthBearerToken instanceof OAuthBearerJwt);
+    assertTrue(oAuthBearerToken instanceof OAuthBearerValidatedToken);
+  }
+
+  @Test
+  public void verifyKeysAreLoadedByWarmUp() throws Exception {
+    try (IdentityProviderStub identityProvider = new IdentityProviderStub()) {
+      Map<String, String> jwksOptions = new HashMap<>();
+      jwksOptions.put("idpWhitelist", "[{'external': '" + identityProvider.url() + "'}]");
+      jwksOptions.put("warmUpEnabled", "true");
+      OAuthBearerValidatorCallbackHandler validatorCallbackHandler = newHandler();
+      validatorCallbackHandler.configureOptions(jwksOptions);
+      assertThat(identityProvider.discoveryRequests(), equalTo(1));
+      assertThat(identityProvider.jwksRequests(), equalTo(1));
+
+      OAuthBearerToken oAuthBearerToken =
+          validatorCallbackHandler.validateToken(identityProvider.sign("alice"));
+      assertThat(oAuthBearerToken.principalName(), equalTo("alice"));
+      assertThat(identityProvider.discoveryRequests(), equalTo(1));
+      assertThat(identityProvider.jwksRequests(), equalTo(1));
+    }
   }
 
   @Test(expected = BadJWSException.class)
   public void verifyInvalidTokenWithKeystore() throws Exception {
-    OAuthBearerValidatorCallbackHandler validatorCallbackHandler = new OAuthBearerValidatorCallbackHandler();
+    OAuthBearerValidatorCallbackHandler validatorCallbackHandler = newHandler();
     validatorCallbackHandler.configureOptions(options);
 
     validatorCallbackHandler.validateToken(invalidToken);
@@ -69,7 +137,7 @@ public class OAuthBearerValidatorCallbackHandlerTest {
 
   @Test(expected = BadJWTException.class)
   public void verifyExpiredTokenWithKeystore() throws Exception {
-    OAuthBearerValidatorCallbackHandler validatorCallbackHandler = new OAuthBearerValidatorCallbackHandler();
+    OAuthBearerValidatorCallbackHandler validatorCallbackHandler = newHandler();
     options.put("clockSkew", "0");
     validatorCallbackHandler.configureOptions(options);
 
@@ -77,13 +145,341 @@ public class OAuthBearerValidatorCallbackHandlerTest {
     fail("Token validation should fail");
   }
 
+  @Test
+  public void verifyAudienceIsCheckedBeforeSignature() throws Exception {
+    OAuthBearerValidatorCallbackHandler validatorCallbackHandler = newHandler();
+    options.put("audience", "kafka");
+    validatorCallbackHandler.configureOptions(options);
+
+    try {
+      validatorCallbackHandler.validateToken(invalidToken);
+      fail("Token audience should not be accepted");
+    } catch (TokenPrecheckException e) {
+      assertThat(e.stage(), equalTo(ValidationStage.CLAIMS));
+    }
+    options.put("audience", "kafka,account");
+    validatorCallbackHandler.configureOptions(options);
+    assertTrue(validatorCallbackHandler.validateToken(validToken)
+        instanceof OAuthBearerValidatedToken);
+  }
+
   @Test(expected = IOException.class)
   public void verifyValidTokenWithInvalidKeystorePassword() throws Exception {
-    OAuthBearerValidatorCallbackHandler validatorCallbackHandler = new OAuthBearerValidatorCallbackHandler();
+    OAuthBearerValidatorCallbackHandler validatorCallbackHandler = newHandler();
     options.put("keystorePassword", "invalid");
     validatorCallbackHandler.configureOptions(options);
 
     validatorCallbackHandler.validateToken(validToken);
     fail("Token validation should fail");
   }
+
+  @Test
+  public void verifyRolesAreExtractedByIssuerProfile() throws Exception {
+    OAuthBearerValidatorCallbackHandler validatorCallbackHandler = newHandler();
+    options.put("idpWhitelist",
+        "[{'external': 'http://localhost:8090/auth/realms/master','internal':'http://keycloak:8080/auth/realms/master',"
+            + "'tokenRolesPath': 'realm_access.roles'}]");
+    validatorCallbackHandler.configureOptions(options);
+
+    OAuthBearerRolesToken token = validatorCallbackHandler.validateToken(validToken);
+    assertTrue(token.roles().contains("offline_access"));
+    assertTrue(validToken.roles().isEmpty());
+  }
+
+  @Test
+  public void verifyStateIsSharedUntilLastHandlerIsClosed() throws Exception {
+    OAuthBearerValidatorCallbackHandler firstHandler = newHandler();
+    OAuthBearerValidatorCallbackHandler secondHandler = newHandler();
+    options.put("tokenCacheSize", "1");
+    firstHandler.configureOptions(options);
+    secondHandler.configureOptions(new HashMap<>(options));
+    firstHandler.close();
+
+    OAuthBearerToken oAuthBearerToken = secondHandler.validateToken(validToken);
+    assertTrue(oAuthBearerToken instanceof OAuthBearerValidatedToken);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void verifyClosedHandlerDoesNotValidateTokens() throws Exception {
+    OAuthBearerValidatorCallbackHandler validatorCallbackHandler = newHandler();
+    validatorCallbackHandler.configureOptions(options);
+    validatorCallbackHandler.close();
+
+    validatorCallbackHandler.validateToken(validToken);
+  }
+
+  @Test
+  public void verifyInvalidOptionsDoNotLeakResources() throws Exception {
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    ObjectName validatorNames =
+        new ObjectName("org.qubership.kafka.security:type=OAuthBearerValidator,*");
+    int mbeans = server.queryNames(validatorNames, null).size();
+    long threads = backgroundThreads();
+    options.put("validationOverflowPolicy", "unknown");
+    try {
+      newHandler().configureOptions(options);
+      fail("Invalid overflow policy should be rejected");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    assertThat(server.queryNames(validatorNames, null).size(), equalTo(mbeans));
+    assertThat(backgroundThreads(), lessThanOrEqualTo(threads));
+  }
+
+  private static long backgroundThreads() {
+    return Thread.getAllStackTraces().keySet().stream()
+        .filter(thread -> thread.getName().startsWith("oauth-validator-background"))
+        .count();
+  }
+
+  @Test
+  public void verifyTrustedIssuersAreReloadedFromFile() throws Exception {
+    Path optionsPath = folder.newFile("validator.properties").toPath();
+    Files.write(optionsPath, Collections.singletonList(
+        "idpWhitelist=[{'external': 'http://localhost:8090/auth/realms/other'}]"),
+        StandardCharsets.UTF_8);
+    options.put("reloadableOptionsPath", optionsPath.toString());
+    options.put("reloadableOptionsReloadInterval", "50");
+    OAuthBearerValidatorCallbackHandler validatorCallbackHandler = newHandler();
+    validatorCallbackHandler.configureOptions(options);
+    try {
+      validatorCallbackHandler.validateToken(validToken);
+      fail("Token issuer should not be trusted");
+    } catch (IssuerNotTrustedException e) {
+      // expected
+    }
+
+    Files.write(optionsPath, Collections.singletonList(
+        "idpWhitelist=[{'external': 'http://localhost:8090/auth/realms/master'}]"),
+        StandardCharsets.UTF_8);
+    Files.setLastModifiedTime(optionsPath,
+        FileTime.fromMillis(System.currentTimeMillis() + 60000));
+    long deadline = System.currentTimeMillis() + 10000;
+    OAuthBearerToken oAuthBearerToken = null;
+    while (oAuthBearerToken == null) {
+      try {
+        oAuthBearerToken = validatorCallbackHandler.validateToken(validToken);
+      } catch (IssuerNotTrustedException e) {
+        if (System.currentTimeMillis() > deadline) {
+          throw e;
+        }
+        Thread.sleep(50);
+      }
+    }
+    assertTrue(oAuthBearerToken instanceof OAuthBearerValidatedToken);
+  }
+
+  @Test
+  public void verifyTokenValidatedWithReplacedSettingsIsNotCached() throws Exception {
+    Path optionsPath = folder.newFile("validator.properties").toPath();
+    Files.write(optionsPath, Collections.singletonList(
+        "idpWhitelist=[{'external': 'http://localhost:8090/auth/realms/master'}]"),
+        StandardCharsets.UTF_8);
+    options.put("reloadableOptionsPath", optionsPath.toString());
+    options.put("reloadableOptionsReloadInterval", "50");
+    ValidatorState state = ValidatorState.create(options);
+    try (IdentityProviderStub identityProvider = new IdentityProviderStub()) {
+      OAuthBearerValidatedToken token =
+          new OAuthBearerValidatedToken(identityProvider.sign("alice"), TokenRolesExtractor.EMPTY);
+      ValidatorSettings previous = state.settings();
+
+      Files.write(optionsPath, Collections.singletonList(
+          "idpWhitelist=[{'external': 'http://localhost:8090/auth/realms/other'}]"),
+          StandardCharsets.UTF_8);
+      Files.setLastModifiedTime(optionsPath,
+          FileTime.fromMillis(System.currentTimeMillis() + 60000));
+      long deadline = System.currentTimeMillis() + 10000;
+      while (state.settings() == previous) {
+        if (System.currentTimeMillis() > deadline) {
+          fail("Options should be reloaded");
+        }
+        Thread.sleep(50);
+      }
+      state.cacheValidatedToken("digest", token, previous);
+      assertThat(state.tokenCache().get("digest") == null, equalTo(true));
+
+      state.cacheValidatedToken("digest", token, state.settings());
+      assertThat(state.tokenCache().get("digest") == token, equalTo(true));
+    } finally {
+      state.close();
+    }
+  }
+
+  @Test
+  public void verifyStalledIdentityProviderDoesNotBlockJwksRefreshOfOthers() throws Exception {
+    try (IdentityProviderStub stalledProvider = new IdentityProviderStub();
+        IdentityProviderStub healthyProvider = new IdentityProviderStub()) {
+      Map<String, String> jwksOptions = new HashMap<>();
+      jwksOptions.put("idpWhitelist", "[{'external': '" + stalledProvider.url() + "'},"
+          + "{'external': '" + healthyProvider.url() + "'}]");
+      jwksOptions.put("jwksRefreshInterval", "50");
+      jwksOptions.put("jwksReadTimeout", "30000");
+      OAuthBearerValidatorCallbackHandler validatorCallbackHandler = newHandler();
+      validatorCallbackHandler.configureOptions(jwksOptions);
+      validatorCallbackHandler.validateToken(stalledProvider.sign("alice"));
+      validatorCallbackHandler.validateToken(healthyProvider.sign("bob"));
+
+      stalledProvider.stallJwks();
+      int stalledRequests = stalledProvider.jwksRequests();
+      long deadline = System.currentTimeMillis() + 10000;
+      while (stalledProvider.jwksRequests() == stalledRequests) {
+        if (System.currentTimeMillis() > deadline) {
+          fail("JWKS of stalled Identity Provider should be refreshed");
+        }
+        Thread.sleep(10);
+      }
+      int healthyRequests = healthyProvider.jwksRequests();
+      while (healthyProvider.jwksRequests() < healthyRequests + 3) {
+        if (System.currentTimeMillis() > deadline) {
+          fail("JWKS of healthy Identity Provider should be refreshed");
+        }
+        Thread.sleep(10);
+      }
+    }
+  }
+
+  @Test
+  public void verifyJwksUriIsDiscoveredAfterRestoreFromSnapshot() throws Exception {
+    try (IdentityProviderStub identityProvider = new IdentityProviderStub()) {
+      Path snapshotDir = folder.newFolder().toPath();
+      JwksSnapshotStore snapshotStore = new JwksSnapshotStore(snapshotDir);
+      snapshotStore.save(identityProvider.url(), identityProvider.url() + "/old-certs",
+          identityProvider.jwkSet());
+      Map<String, String> jwksOptions = new HashMap<>();
+      jwksOptions.put("idpWhitelist", "[{'external': '" + identityProvider.url() + "'}]");
+      jwksOptions.put("jwksSnapshotDir", snapshotDir.toString());
+      OAuthBearerValidatorCallbackHandler validatorCallbackHandler = newHandler();
+      validatorCallbackHandler.configureOptions(jwksOptions);
+      OAuthBearerToken oAuthBearerToken =
+          validatorCallbackHandler.validateToken(identityProvider.sign("alice"));
+      assertThat(oAuthBearerToken.principalName(), equalTo("alice"));
+
+      long deadline = System.currentTimeMillis() + 10000;
+      while (identityProvider.jwksRequests() == 0 && System.currentTimeMillis() < deadline) {
+        Thread.sleep(50);
+      }
+      assertThat(identityProvider.jwksRequests(), equalTo(1));
+      assertThat(identityProvider.discoveryRequests(), equalTo(1));
+      oAuthBearerToken = validatorCallbackHandler.validateToken(identityProvider.sign("bob"));
+      assertThat(oAuthBearerToken.principalName(), equalTo("bob"));
+    }
+  }
+
+  @Test
+  public void verifyValidatedTokenDoesNotKeepParsedJwt() throws Exception {
+    try (IdentityProviderStub identityProvider = new IdentityProviderStub()) {
+      Map<String, String> jwksOptions = new HashMap<>();
+      jwksOptions.put("idpWhitelist", "[{'external': '" + identityProvider.url() + "'}]");
+      OAuthBearerValidatorCallbackHandler validatorCallbackHandler = newHandler();
+      configure(validatorCallbackHandler, jwksOptions);
+      String tokenValue = identityProvider.sign("alice").value();
+      OAuthBearerValidatorCallback callback = new OAuthBearerValidatorCallback(tokenValue);
+      validatorCallbackHandler.handle(new Callback[] {callback});
+      OAuthBearerToken token = callback.token();
+      assertTrue(token instanceof OAuthBearerValidatedToken);
+      assertThat(token.value(), equalTo(tokenValue));
+      assertThat(token.principalName(), equalTo("alice"));
+      for (Field field : token.getClass().getDeclaredFields()) {
+        assertFalse(field.getName(), JWT.class.isAssignableFrom(field.getType()));
+        assertFalse(field.getName(), JWTClaimsSet.class.isAssignableFrom(field.getType()));
+      }
+
+      callback = new OAuthBearerValidatorCallback(tokenValue);
+      validatorCallbackHandler.handle(new Callback[] {callback});
+      assertThat(callback.token(), sameInstance(token));
+    }
+  }
+
+  @Test
+  public void verifyIdentityProviderFailureIsNotCached() throws Exception {
+    try (IdentityProviderStub identityProvider = new IdentityProviderStub()) {
+      identityProvider.setJwksPath(null);
+      Map<String, String> jwksOptions = new HashMap<>();
+      jwksOptions.put("idpWhitelist", "[{'external': '" + identityProvider.url() + "'}]");
+      jwksOptions.put("discoveryFailureCacheTtl", "0");
+      OAuthBearerValidatorCallbackHandler validatorCallbackHandler = newHandler();
+      configure(validatorCallbackHandler, jwksOptions);
+      String tokenValue = identityProvider.sign("alice").value();
+      OAuthBearerValidatorCallback callback = new OAuthBearerValidatorCallback(tokenValue);
+      validatorCallbackHandler.handle(new Callback[] {callback});
+      assertThat(callback.errorStatus(),
+          equalTo("Cannot obtain public keys from Identity Provider"));
+
+      identityProvider.setJwksPath("/certs");
+      callback = new OAuthBearerValidatorCallback(tokenValue);
+      validatorCallbackHandler.handle(new Callback[] {callback});
+      assertThat(callback.token().principalName(), equalTo("alice"));
+    }
+  }
+
+  @Test
+  public void verifyFailedDiscoveryIsNotRepeated() throws Exception {
+    try (IdentityProviderStub identityProvider = new IdentityProviderStub()) {
+      String realms = identityProvider.url().replace("/master", "");
+      Map<String, String> jwksOptions = new HashMap<>();
+      jwksOptions.put("idpWhitelist", "[{'external': '" + realms + "/*'}]");
+      OAuthBearerValidatorCallbackHandler validatorCallbackHandler = newHandler();
+      validatorCallbackHandler.configureOptions(jwksOptions);
+      for (int i = 0; i < 2; i++) {
+        try {
+          validatorCallbackHandler.validateToken(
+              identityProvider.sign("alice", realms + "/forged"));
+          fail("Keys of unknown realm should not be loaded");
+        } catch (KeySourceException e) {
+          // expected
+        }
+      }
+      assertThat(identityProvider.discoveryRequests(), equalTo(1));
+
+      OAuthBearerToken oAuthBearerToken =
+          validatorCallbackHandler.validateToken(identityProvider.sign("bob"));
+      assertThat(oAuthBearerToken.principalName(), equalTo("bob"));
+    }
+  }
+
+  @Test
+  public void verifyNumberOfIdentityProvidersIsLimited() throws Exception {
+    try (IdentityProviderStub identityProvider = new IdentityProviderStub()) {
+      String realms = identityProvider.url().replace("/master", "");
+      Map<String, String> jwksOptions = new HashMap<>();
+      jwksOptions.put("idpWhitelist", "[{'external': '" + realms + "/*'}]");
+      jwksOptions.put("maxIdentityProviders", "1");
+      OAuthBearerValidatorCallbackHandler validatorCallbackHandler = newHandler();
+      validatorCallbackHandler.configureOptions(jwksOptions);
+      validatorCallbackHandler.validateToken(identityProvider.sign("alice"));
+      try {
+        validatorCallbackHandler.validateToken(identityProvider.sign("bob", realms + "/other"));
+        fail("Keys of the second realm should not be loaded");
+      } catch (KeySourceException e) {
+        // expected
+      }
+      assertThat(identityProvider.discoveryRequests(), equalTo(1));
+    }
+  }
+
+  @Test
+  public void verifyClaimsOfIntrospectedTokenAreChecked() throws Exception {
+    try (IdentityProviderStub identityProvider = new IdentityProviderStub()) {
+      options.put("introspectionEndpoint", identityProvider.url() + "/introspect");
+      options.put("claimsPolicy", "azp = kafka");
+      OAuthBearerValidatorCallbackHandler validatorCallbackHandler = newHandler();
+      configure(validatorCallbackHandler, options);
+      OAuthBearerValidatorCallback callback = new OAuthBearerValidatorCallback("opaque-token");
+      validatorCallbackHandler.handle(new Callback[] {callback});
+      assertThat(callback.errorStatus(), equalTo("Token claim 'azp' must be one of [kafka]"));
+
+      options.put("claimsPolicy", "azp = kafka-test");
+      options.put("audience", "kafka");
+      configure(validatorCallbackHandler, options);
+      callback = new OAuthBearerValidatorCallback("opaque-token");
+      validatorCallbackHandler.handle(new Callback[] {callback});
+      assertThat(callback.errorStatus(), equalTo("Token audience is not one of [kafka]"));
+
+      options.put("audience", "account");
+      configure(validatorCallbackHandler, options);
+      callback = new OAuthBearerValidatorCallback("opaque-token");
+      validatorCallbackHandler.handle(new Callback[] {callback});
+      assertThat(callback.token().principalName(), equalTo("alice"));
+    }
+  }
 }
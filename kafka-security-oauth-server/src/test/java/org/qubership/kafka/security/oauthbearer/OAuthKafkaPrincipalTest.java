@@ -0,0 +1,56 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import org.apache.kafka.common.security.auth.KafkaPrincipal;
+import org.junit.Test;
+
+public class OAuthKafkaPrincipalTest {
+
+  private static final TokenRolesExtractor ROLES_EXTRACTOR =
+      TokenRolesExtractor.compile("realm_access.roles");
+
+  private static OAuthBearerRolesToken token(String subject, String... roles) {
+    return TestTokens.validatedToken(TestTokens.claims(subject)
+        .claim("realm_access", Collections.singletonMap("roles", Arrays.asList(roles)))
+        .build(), ROLES_EXTRACTOR);
+  }
+
+  @Test
+  public void testKeepRolesOfToken() {
+    OAuthKafkaPrincipal principal =
+        new OAuthKafkaPrincipal(KafkaPrincipal.USER_TYPE, "alice", token("alice", "a", "b"));
+    assertThat(principal.getRoles(), equalTo(new HashSet<>(Arrays.asList("a", "b"))));
+    assertThat(principal.getName(), equalTo("alice"));
+  }
+
+  @Test
+  public void testShareEqualRoleSets() {
+    OAuthKafkaPrincipal first =
+        new OAuthKafkaPrincipal(KafkaPrincipal.USER_TYPE, "alice", token("alice", "a", "b"));
+    OAuthKafkaPrincipal second =
+        new OAuthKafkaPrincipal(KafkaPrincipal.USER_TYPE, "bob", token("bob", "b", "a"));
+    assertThat(first.getRoles(), sameInstance(second.getRoles()));
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class OptionsFileTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final AtomicReference<Map<String, String>> reloaded = new AtomicReference<>();
+  private Path path;
+  private OptionsFile optionsFile;
+
+  @Before
+  public void setUp() throws Exception {
+    path = folder.getRoot().toPath().resolve("validator.properties");
+    write("# validator options", "clockSkew=30", "tokenRolesPath=realm_access.roles");
+    optionsFile = new OptionsFile(path, reloaded::set);
+  }
+
+  private void write(String... lines) throws Exception {
+    Files.write(path, Arrays.asList(lines), StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testReadOptions() throws Exception {
+    Map<String, String> options = optionsFile.read();
+    assertThat(options.size(), equalTo(2));
+    assertThat(options.get("clockSkew"), equalTo("30"));
+    assertThat(reloaded.get() == null, equalTo(true));
+  }
+
+  @Test
+  public void testSkipReloadOfUnchangedFile() throws Exception {
+    optionsFile.read();
+    assertThat(optionsFile.reload(), equalTo(false));
+    assertThat(reloaded.get() == null, equalTo(true));
+  }
+
+  @Test
+  public void testReloadChangedFile() throws Exception {
+    optionsFile.read();
+    write("clockSkew=60");
+    Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis() + 60000));
+
+    assertThat(optionsFile.reload(), equalTo(true));
+    assertThat(reloaded.get().size(), equalTo(1));
+    assertThat(reloaded.get().get("clockSkew"), equalTo("60"));
+  }
+}
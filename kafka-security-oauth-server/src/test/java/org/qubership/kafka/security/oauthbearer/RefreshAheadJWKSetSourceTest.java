@@ -0,0 +1,146 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.JWKSetCacheRefreshEvaluator;
+import com.nimbusds.jose.jwk.source.JWKSetSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RefreshAheadJWKSetSourceTest {
+
+  private final AtomicReference<JWKSet> jwkSet = new AtomicReference<>();
+  private final AtomicInteger loads = new AtomicInteger();
+  private final Semaphore loaded = new Semaphore(0);
+  private final AtomicReference<JWKSet> refreshed = new AtomicReference<>();
+  private volatile boolean available = true;
+  private ScheduledExecutorService executor;
+  private RefreshAheadJWKSetSource source;
+
+  @Before
+  public void setUp() throws Exception {
+    jwkSet.set(new JWKSet(new RSAKeyGenerator(2048).keyID("first").generate().toPublicJWK()));
+    JWKSetSource<SecurityContext> remoteSource = new JWKSetSource<SecurityContext>() {
+      @Override
+      public JWKSet getJWKSet(JWKSetCacheRefreshEvaluator refreshEvaluator, long currentTime,
+          SecurityContext context) throws KeySourceException {
+        try {
+          loads.incrementAndGet();
+          if (!available) {
+            throw new KeySourceException("Identity Provider is not available");
+          }
+          return jwkSet.get();
+        } finally {
+          loaded.release();
+        }
+      }
+
+      @Override
+      public void close() {
+      }
+    };
+    executor = Executors.newSingleThreadScheduledExecutor();
+    source = new RefreshAheadJWKSetSource("test", remoteSource, executor, 60000, 600000,
+        refreshed::set);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    source.close();
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testLoadJwkSetOnce() throws Exception {
+    JWKSet first = source.getJWKSet(
+        JWKSetCacheRefreshEvaluator.noRefresh(), System.currentTimeMillis(), null);
+    JWKSet second = source.getJWKSet(
+        JWKSetCacheRefreshEvaluator.noRefresh(), System.currentTimeMillis(), null);
+    assertThat(second, sameInstance(first));
+    assertThat(loads.get(), equalTo(1));
+  }
+
+  @Test
+  public void testRefreshInBackground() throws Exception {
+    JWKSet first = source.getJWKSet(
+        JWKSetCacheRefreshEvaluator.noRefresh(), System.currentTimeMillis(), null);
+    loaded.acquire();
+    JWKSet rotated =
+        new JWKSet(new RSAKeyGenerator(2048).keyID("second").generate().toPublicJWK());
+    jwkSet.set(rotated);
+    JWKSet current = source.getJWKSet(
+        JWKSetCacheRefreshEvaluator.forceRefresh(), System.currentTimeMillis(), null);
+    assertThat(current, sameInstance(first));
+    loaded.tryAcquire(10, TimeUnit.SECONDS);
+    executor.submit(() -> { }).get();
+    current = source.getJWKSet(
+        JWKSetCacheRefreshEvaluator.noRefresh(), System.currentTimeMillis(), null);
+    assertThat(current, sameInstance(rotated));
+    assertThat(refreshed.get(), sameInstance(rotated));
+  }
+
+  @Test
+  public void testServeLastJwkSetWhenRefreshFails() throws Exception {
+    JWKSet first = source.getJWKSet(
+        JWKSetCacheRefreshEvaluator.noRefresh(), System.currentTimeMillis(), null);
+    loaded.acquire();
+    available = false;
+    source.getJWKSet(JWKSetCacheRefreshEvaluator.forceRefresh(), System.currentTimeMillis(), null);
+    loaded.tryAcquire(10, TimeUnit.SECONDS);
+    executor.submit(() -> { }).get();
+    JWKSet current = source.getJWKSet(
+        JWKSetCacheRefreshEvaluator.noRefresh(), System.currentTimeMillis(), null);
+    assertThat(current, sameInstance(first));
+    assertThat(loads.get(), equalTo(2));
+  }
+
+  @Test(expected = KeySourceException.class)
+  public void testRejectTooStaleJwkSet() throws Exception {
+    long currentTime = System.currentTimeMillis();
+    source.getJWKSet(JWKSetCacheRefreshEvaluator.noRefresh(), currentTime, null);
+    source.getJWKSet(JWKSetCacheRefreshEvaluator.noRefresh(), currentTime + 600001, null);
+  }
+
+  @Test
+  public void testServeSeededJwkSetWithoutLoad() throws Exception {
+    available = false;
+    JWKSet seeded =
+        new JWKSet(new RSAKeyGenerator(2048).keyID("seeded").generate().toPublicJWK());
+    source.seed(seeded, System.currentTimeMillis());
+    loaded.tryAcquire(10, TimeUnit.SECONDS);
+    executor.submit(() -> { }).get();
+    JWKSet current = source.getJWKSet(
+        JWKSetCacheRefreshEvaluator.noRefresh(), System.currentTimeMillis(), null);
+    assertThat(current, sameInstance(seeded));
+    assertThat(loads.get(), equalTo(1));
+  }
+}
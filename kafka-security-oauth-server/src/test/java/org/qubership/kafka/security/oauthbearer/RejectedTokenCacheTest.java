@@ -0,0 +1,69 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public class RejectedTokenCacheTest {
+
+  private static final String DESCRIPTION = "Token issuer URL is not compliance with whitelist";
+
+  @Test
+  public void testReturnRejectionOfRejectedToken() {
+    RejectedTokenCache cache = new RejectedTokenCache(10, 60000);
+    String digest = TokenDigest.of("token");
+    assertThat(cache.rejection(digest), nullValue());
+    cache.put(digest, DESCRIPTION, "alice");
+    assertThat(cache.rejection(digest), equalTo(DESCRIPTION));
+    assertThat(cache.rejection(TokenDigest.of("another token")), nullValue());
+    assertThat(cache.stats().hitCount(), equalTo(1L));
+  }
+
+  @Test
+  public void testForgetRejectionsOnInvalidation() {
+    RejectedTokenCache cache = new RejectedTokenCache(10, 60000);
+    String digest = TokenDigest.of("token");
+    cache.put(digest, DESCRIPTION, null);
+    cache.rejection(digest);
+    cache.invalidateAll();
+    assertThat(cache.rejection(digest), nullValue());
+  }
+
+  @Test
+  public void testForgetRejectionsWithDescription() {
+    RejectedTokenCache cache = new RejectedTokenCache(10, 60000);
+    String revokedDigest = TokenDigest.of("revoked token");
+    String digest = TokenDigest.of("token");
+    cache.put(revokedDigest, "Token is revoked", "alice");
+    cache.put(digest, DESCRIPTION, "bob");
+    cache.invalidate("Token is revoked");
+    assertThat(cache.rejection(revokedDigest), nullValue());
+    assertThat(cache.rejection(digest), equalTo(DESCRIPTION));
+  }
+
+  @Test
+  public void testDisabledCache() {
+    RejectedTokenCache cache = new RejectedTokenCache(0, 60000);
+    String digest = TokenDigest.of("token");
+    cache.put(digest, DESCRIPTION, "alice");
+    assertThat(cache.rejection(digest), nullValue());
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class RevocationListTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final AtomicInteger reloads = new AtomicInteger();
+  private Path path;
+  private RevocationList revocationList;
+
+  @Before
+  public void setUp() throws Exception {
+    path = folder.getRoot().toPath().resolve("revoked");
+    write("# revoked tokens", "jti:first", "", "sub:alice", "unknown");
+    revocationList = new RevocationList(path, reloads::incrementAndGet);
+    revocationList.reload();
+  }
+
+  private void write(String... lines) throws Exception {
+    Files.write(path, Arrays.asList(lines), StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testLoadEntries() {
+    assertThat(revocationList.size(), equalTo(2));
+    assertThat(reloads.get(), equalTo(1));
+  }
+
+  @Test
+  public void testRevokedByTokenId() {
+    assertThat(revocationList.isRevoked("first", "bob"), equalTo(true));
+    assertThat(revocationList.isRevoked("second", "bob"), equalTo(false));
+    assertThat(revocationList.isRevoked(null, null), equalTo(false));
+  }
+
+  @Test
+  public void testRevokedBySubject() {
+    assertThat(revocationList.isRevoked("second", "alice"), equalTo(true));
+    assertThat(revocationList.isRevoked(null, "alice"), equalTo(true));
+    assertThat(revocationList.isRevoked("alice", null), equalTo(false));
+  }
+
+  @Test
+  public void testMatchEntriesExactly() throws Exception {
+    String[] lines = new String[10000];
+    for (int i = 0; i < lines.length; i++) {
+      lines[i] = "jti:revoked-" + i;
+    }
+    write(lines);
+    Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis() + 60000));
+    revocationList.reload();
+
+    for (int i = 0; i < lines.length; i++) {
+      assertThat(revocationList.isRevoked("revoked-" + i, null), equalTo(true));
+      assertThat(revocationList.isRevoked("active-" + i, "active-" + i), equalTo(false));
+    }
+  }
+
+  @Test(expected = RevokedTokenException.class)
+  public void testCheckRevokedToken() throws Exception {
+    revocationList.check("first", null);
+  }
+
+  @Test
+  public void testSkipReloadOfUnchangedFile() throws Exception {
+    assertThat(revocationList.reload(), equalTo(false));
+    assertThat(reloads.get(), equalTo(1));
+  }
+
+  @Test
+  public void testReloadChangedFile() throws Exception {
+    write("jti:second");
+    Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis() + 60000));
+
+    assertThat(revocationList.reload(), equalTo(true));
+    assertThat(reloads.get(), equalTo(2));
+    assertThat(revocationList.size(), equalTo(1));
+    assertThat(revocationList.isRevoked("first", "alice"), equalTo(false));
+    assertThat(revocationList.isRevoked("second", "bob"), equalTo(true));
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class SharedRegistryTest {
+
+  private final AtomicInteger created = new AtomicInteger();
+  private final List<String> closed = new ArrayList<>();
+  private final SharedRegistry<String, String> registry = new SharedRegistry<>(closed::add);
+
+  private String create(String key) {
+    created.incrementAndGet();
+    return new String("value-" + key);
+  }
+
+  @Test
+  public void testShareValueBetweenOwners() {
+    String first = registry.acquire("a", this::create);
+    String second = registry.acquire("a", this::create);
+    assertThat(second, sameInstance(first));
+    assertThat(created.get(), equalTo(1));
+    assertThat(registry.references("a"), equalTo(2));
+  }
+
+  @Test
+  public void testCreateValuePerKey() {
+    registry.acquire("a", this::create);
+    registry.acquire("b", this::create);
+    assertThat(created.get(), equalTo(2));
+  }
+
+  @Test
+  public void testCloseValueWhenLastOwnerReleases() {
+    registry.acquire("a", this::create);
+    registry.acquire("a", this::create);
+    registry.release("a");
+    assertThat(closed.isEmpty(), equalTo(true));
+    registry.release("a");
+    assertThat(closed.size(), equalTo(1));
+    assertThat(registry.references("a"), equalTo(0));
+  }
+
+  @Test
+  public void testCreateNewValueAfterRelease() {
+    String first = registry.acquire("a", this::create);
+    registry.release("a");
+    String second = registry.acquire("a", this::create);
+    assertThat(second == first, equalTo(false));
+    assertThat(created.get(), equalTo(2));
+  }
+
+  @Test
+  public void testIgnoreReleaseOfUnknownKey() {
+    registry.release("a");
+    assertThat(closed.isEmpty(), equalTo(true));
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jwt.JWTClaimsSet;
+import java.util.Date;
+
+/**
+ * Tokens with fake signature for tests which do not verify signature. Use
+ * {@link IdentityProviderStub#sign(String)} to obtain signed token.
+ */
+final class TestTokens {
+
+  static final String ISSUER = "http://localhost:8080";
+
+  private TestTokens() {
+  }
+
+  /**
+   * Returns claims of token issued by {@link #ISSUER} to the given subject, which expires in one
+   * hour.
+   */
+  static JWTClaimsSet.Builder claims(String subject) {
+    return new JWTClaimsSet.Builder()
+        .issuer(ISSUER)
+        .subject(subject)
+        .expirationTime(new Date(System.currentTimeMillis() + 3600000));
+  }
+
+  static String serialize(JWSAlgorithm algorithm, JWTClaimsSet claims) {
+    return new JWSHeader(algorithm).toBase64URL() + "." + Base64URL.encode(claims.toString())
+        + "." + Base64URL.encode("signature");
+  }
+
+  static OAuthBearerJwt token(JWSAlgorithm algorithm, JWTClaimsSet claims) {
+    return new OAuthBearerJwt(serialize(algorithm, claims));
+  }
+
+  static OAuthBearerJwt token(JWTClaimsSet claims) {
+    return token(JWSAlgorithm.RS256, claims);
+  }
+
+  static OAuthBearerJwt token(String subject) {
+    return token(claims(subject).build());
+  }
+
+  static OAuthBearerValidatedToken validatedToken(JWTClaimsSet claims,
+      TokenRolesExtractor rolesExtractor) {
+    return new OAuthBearerValidatedToken(token(claims), rolesExtractor);
+  }
+
+  static OAuthBearerValidatedToken validatedToken(JWTClaimsSet claims) {
+    return validatedToken(claims, TokenRolesExtractor.EMPTY);
+  }
+
+  static OAuthBearerValidatedToken validatedToken(String subject) {
+    return validatedToken(claims(subject).build());
+  }
+}
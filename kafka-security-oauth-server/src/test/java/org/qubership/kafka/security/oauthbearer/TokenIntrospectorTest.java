@@ -0,0 +1,166 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Scanner;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TokenIntrospectorTest {
+
+  private static final String ACTIVE_TOKEN = "active-token";
+  private static final String ANONYMOUS_TOKEN = "anonymous-token";
+  private static final String ACTIVE_RESPONSE = "{\"active\": true, \"sub\": \"alice\","
+      + " \"scope\": \"read write\", \"exp\": %d,"
+      + " \"realm_access\": {\"roles\": [\"admin\", \"user\"]}}";
+
+  private final AtomicInteger requests = new AtomicInteger();
+  private final AtomicReference<String> authorization = new AtomicReference<>();
+  private volatile long responseDelay;
+  private HttpServer server;
+  private HttpTransport transport;
+  private TokenIntrospector tokenIntrospector;
+
+  @Before
+  public void setUp() throws Exception {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/introspect", exchange -> {
+      requests.incrementAndGet();
+      authorization.set(exchange.getRequestHeaders().getFirst("Authorization"));
+      String body = new Scanner(exchange.getRequestBody(), "UTF-8").useDelimiter("\\A").next();
+      try {
+        Thread.sleep(responseDelay);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      String response;
+      if (body.contains("token=" + ACTIVE_TOKEN)) {
+        response = String.format(ACTIVE_RESPONSE, System.currentTimeMillis() / 1000 + 60);
+      } else if (body.contains("token=" + ANONYMOUS_TOKEN)) {
+        response = "{\"active\": true, \"scope\": \"read\"}";
+      } else {
+        response = "{\"active\": false}";
+      }
+      byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().add("Content-Type", "application/json");
+      exchange.sendResponseHeaders(200, bytes.length);
+      try (OutputStream outputStream = exchange.getResponseBody()) {
+        outputStream.write(bytes);
+      }
+    });
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.start();
+    transport = new JdkHttpTransport(1000);
+    String endpoint = "http://localhost:" + server.getAddress().getPort() + "/introspect";
+    tokenIntrospector = new TokenIntrospector(transport, endpoint, "kafka", "secret", 5000,
+        TokenRolesExtractor.compile("realm_access.roles"),
+        new CircuitBreaker(endpoint, 0, 0, new CircuitBreaker.Listener() {
+          @Override
+          public void onStateChange(String endpoint, CircuitBreaker.State from,
+              CircuitBreaker.State to) {
+          }
+
+          @Override
+          public void onRejection(String endpoint) {
+          }
+        }), 100, 60000);
+  }
+
+  @After
+  public void tearDown() {
+    transport.close();
+    server.stop(0);
+  }
+
+  @Test
+  public void testDetectOpaqueToken() {
+    assertThat(TokenIntrospector.isOpaque(ACTIVE_TOKEN), equalTo(true));
+    assertThat(TokenIntrospector.isOpaque("header.payload.signature"), equalTo(false));
+  }
+
+  @Test
+  public void testIntrospectActiveToken() throws Exception {
+    OAuthBearerIntrospectedToken token =
+        tokenIntrospector.introspect(ACTIVE_TOKEN, TokenDigest.of(ACTIVE_TOKEN));
+    assertThat(token.principalName(), equalTo("alice"));
+    assertThat(token.scope(), containsInAnyOrder("read", "write"));
+    assertThat(token.roles(), containsInAnyOrder("admin", "user"));
+    assertThat(authorization.get(), startsWith("Basic "));
+  }
+
+  @Test
+  public void testCacheActiveToken() throws Exception {
+    tokenIntrospector.introspect(ACTIVE_TOKEN, TokenDigest.of(ACTIVE_TOKEN));
+    tokenIntrospector.introspect(ACTIVE_TOKEN, TokenDigest.of(ACTIVE_TOKEN));
+    assertThat(requests.get(), equalTo(1));
+  }
+
+  @Test
+  public void testMergeConcurrentIntrospections() throws Exception {
+    responseDelay = 500;
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Callable<OAuthBearerIntrospectedToken> introspection =
+          () -> tokenIntrospector.introspect(ACTIVE_TOKEN, TokenDigest.of(ACTIVE_TOKEN));
+      Future<OAuthBearerIntrospectedToken> first = executor.submit(introspection);
+      Future<OAuthBearerIntrospectedToken> second = executor.submit(introspection);
+      assertThat(first.get().principalName(), equalTo("alice"));
+      assertThat(second.get().principalName(), equalTo("alice"));
+    } finally {
+      executor.shutdownNow();
+    }
+    assertThat(requests.get(), equalTo(1));
+  }
+
+  @Test
+  public void testDoNotCacheInactiveToken() throws Exception {
+    for (int i = 0; i < 2; i++) {
+      try {
+        tokenIntrospector.introspect("inactive-token", TokenDigest.of("inactive-token"));
+        throw new AssertionError("Inactive token must be rejected");
+      } catch (InactiveTokenException e) {
+        assertThat(requests.get(), equalTo(i + 1));
+      }
+    }
+  }
+
+  @Test
+  public void testRejectActiveTokenWithoutPrincipal() throws Exception {
+    try {
+      tokenIntrospector.introspect(ANONYMOUS_TOKEN, TokenDigest.of(ANONYMOUS_TOKEN));
+      throw new AssertionError("Token without principal must be rejected");
+    } catch (InactiveTokenException e) {
+      assertThat(e.getMessage(), startsWith("Introspection response of active token"));
+    }
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import java.util.Date;
+import org.junit.Test;
+
+public class TokenPrecheckTest {
+
+  private static final long NOW = 1_700_000_000_000L;
+
+  private final TokenPrecheck tokenPrecheck = new TokenPrecheck(null, 2048, 10);
+
+  private static OAuthBearerJwt token(JWSAlgorithm algorithm, long expirationTime,
+      Date notBeforeTime) {
+    return TestTokens.token(algorithm, TestTokens.claims("alice")
+        .expirationTime(new Date(expirationTime))
+        .notBeforeTime(notBeforeTime)
+        .build());
+  }
+
+  @Test
+  public void testAcceptValidToken() throws Exception {
+    tokenPrecheck.check(token(JWSAlgorithm.RS256, NOW + 60000, new Date(NOW)), NOW);
+  }
+
+  @Test
+  public void testAcceptTokenExpiredWithinClockSkew() throws Exception {
+    tokenPrecheck.check(token(JWSAlgorithm.RS256, NOW - 5000, null), NOW);
+  }
+
+  @Test
+  public void testRejectExpiredToken() throws Exception {
+    assertRejected(token(JWSAlgorithm.RS256, NOW - 11000, null), ValidationStage.LIFETIME, false);
+  }
+
+  @Test
+  public void testRejectNotYetValidToken() throws Exception {
+    assertRejected(token(JWSAlgorithm.RS256, NOW + 120000, new Date(NOW + 60000)),
+        ValidationStage.LIFETIME, true);
+  }
+
+  @Test
+  public void testAcceptSymmetricAlgorithmByDefault() throws Exception {
+    tokenPrecheck.check(token(JWSAlgorithm.HS256, NOW + 60000, null), NOW);
+  }
+
+  @Test
+  public void testRejectNotConfiguredAlgorithm() throws Exception {
+    TokenPrecheck precheck = new TokenPrecheck("RS256, ES256", 0, 10);
+    precheck.check(token(JWSAlgorithm.ES256, NOW + 60000, null), NOW);
+    try {
+      precheck.check(token(JWSAlgorithm.RS512, NOW + 60000, null), NOW);
+      fail("Token signed with not configured algorithm must be rejected");
+    } catch (TokenPrecheckException e) {
+      assertThat(e.stage(), equalTo(ValidationStage.ALGORITHM));
+    }
+  }
+
+  @Test
+  public void testRejectTooLongToken() {
+    String tokenValue = token(JWSAlgorithm.RS256, NOW + 60000, null).value();
+    try {
+      tokenPrecheck.checkSize(tokenValue + new String(new char[2048]).replace('\0', 'a'));
+      fail("Too long token must be rejected");
+    } catch (TokenPrecheckException e) {
+      assertThat(e.stage(), equalTo(ValidationStage.SIZE));
+    }
+  }
+
+  private void assertRejected(OAuthBearerJwt jwt, ValidationStage stage, boolean retryable) {
+    try {
+      tokenPrecheck.check(jwt, NOW);
+      fail("Token must be rejected at stage " + stage);
+    } catch (TokenPrecheckException e) {
+      assertThat(e.stage(), equalTo(stage));
+      assertThat(e.retryable(), equalTo(retryable));
+    }
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public class UnknownKeyGuardTest {
+
+  private final OAuthBearerValidatorStats stats =
+      new OAuthBearerValidatorStats(new ValidatedTokenCache(0, 0),
+          new RejectedTokenCache(0, 0), null, null, null);
+  private final UnknownKeyGuard guard = new UnknownKeyGuard(30000, 60000, stats);
+
+  @Test
+  public void testThrottleRefetches() {
+    long currentTime = System.currentTimeMillis();
+    assertThat(guard.tryRefetch("first", currentTime), equalTo(true));
+    assertThat(guard.tryRefetch("second", currentTime + 1000), equalTo(false));
+    assertThat(guard.tryRefetch("third", currentTime + 30000), equalTo(true));
+    assertThat(stats.getUnknownKeyRefetches(), equalTo(2L));
+    assertThat(stats.getUnknownKeyThrottledRefetches(), equalTo(1L));
+  }
+
+  @Test
+  public void testRememberAbsentKeysUntilReset() {
+    long currentTime = System.currentTimeMillis();
+    assertThat(guard.tryRefetch("first", currentTime), equalTo(true));
+    assertThat(guard.tryRefetch("first", currentTime + 30000), equalTo(false));
+    assertThat(stats.getUnknownKeyNegativeCacheHits(), equalTo(1L));
+    guard.reset();
+    assertThat(guard.tryRefetch("first", currentTime + 30000), equalTo(true));
+  }
+}
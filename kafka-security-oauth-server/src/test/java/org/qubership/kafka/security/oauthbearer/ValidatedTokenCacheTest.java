@@ -0,0 +1,70 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.Date;
+import org.junit.Test;
+
+public class ValidatedTokenCacheTest {
+
+  @Test
+  public void testReturnCachedToken() {
+    ValidatedTokenCache cache = new ValidatedTokenCache(10, 60000);
+    OAuthBearerValidatedToken token = TestTokens.validatedToken("alice");
+    String digest = TokenDigest.of(token.value());
+    cache.put(digest, token);
+    assertThat(cache.get(digest), sameInstance(token));
+    assertThat(cache.stats().hitCount(), equalTo(1L));
+  }
+
+  @Test
+  public void testDoNotReturnExpiredToken() {
+    ValidatedTokenCache cache = new ValidatedTokenCache(10, 60000);
+    OAuthBearerValidatedToken token = TestTokens.validatedToken(
+        TestTokens.claims("alice").expirationTime(new Date(1592400415000L)).build());
+    String digest = TokenDigest.of(token.value());
+    cache.put(digest, token);
+    assertThat(cache.get(digest), nullValue());
+    assertThat(cache.size(), equalTo(0L));
+  }
+
+  @Test
+  public void testDisabledCache() {
+    ValidatedTokenCache cache = new ValidatedTokenCache(0, 60000);
+    OAuthBearerValidatedToken token = TestTokens.validatedToken("alice");
+    String digest = TokenDigest.of(token.value());
+    cache.put(digest, token);
+    assertThat(cache.get(digest), nullValue());
+  }
+
+  @Test
+  public void testInvalidateMatchingTokens() {
+    ValidatedTokenCache cache = new ValidatedTokenCache(10, 60000);
+    OAuthBearerValidatedToken alice = TestTokens.validatedToken("alice");
+    OAuthBearerValidatedToken bob = TestTokens.validatedToken("bob");
+    cache.put(TokenDigest.of(alice.value()), alice);
+    cache.put(TokenDigest.of(bob.value()), bob);
+    cache.invalidateIf(token -> "alice".equals(token.principalName()));
+    assertThat(cache.get(TokenDigest.of(alice.value())), nullValue());
+    assertThat(cache.get(TokenDigest.of(bob.value())), sameInstance(bob));
+  }
+}
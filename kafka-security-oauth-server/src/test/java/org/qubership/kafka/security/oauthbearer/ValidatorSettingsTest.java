@@ -0,0 +1,80 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.kafka.security.oauthbearer;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+
+public class ValidatorSettingsTest {
+
+  private static final String FIRST = "http://localhost:8080/auth/realms/first";
+  private static final String SECOND = "http://localhost:8080/auth/realms/second";
+
+  private static ValidatorSettings settings(String whitelist, String... options) {
+    Map<String, String> map = new HashMap<>();
+    map.put("idpWhitelist", whitelist);
+    for (int i = 0; i < options.length; i += 2) {
+      map.put(options[i], options[i + 1]);
+    }
+    return ValidatorSettings.create(map, null);
+  }
+
+  @Test
+  public void testKeepIssuerWhenOtherIssuerIsAdded() {
+    ValidatorSettings previous = settings("[{'external': '" + FIRST + "'}]");
+    ValidatorSettings next =
+        settings("[{'external': '" + FIRST + "'}, {'external': '" + SECOND + "'}]");
+    assertThat(next.trustsSameAs(previous, FIRST), equalTo(true));
+    assertThat(next.trustsSameAs(previous, SECOND), equalTo(false));
+  }
+
+  @Test
+  public void testReleaseIssuerWhenProfileChanges() {
+    ValidatorSettings previous = settings("[{'external': '" + FIRST + "'}]");
+    ValidatorSettings next =
+        settings("[{'external': '" + FIRST + "', 'tokenRolesPath': 'realm_access.roles'}]");
+    assertThat(next.trustsSameAs(previous, FIRST), equalTo(false));
+  }
+
+  @Test
+  public void testReleaseIssuerWhenDefaultProfileChanges() {
+    ValidatorSettings previous = settings("[{'external': '" + FIRST + "'}]");
+    ValidatorSettings next = settings("[{'external': '" + FIRST + "'}]", "clockSkew", "60");
+    assertThat(next.trustsSameAs(previous, FIRST), equalTo(false));
+  }
+
+  @Test
+  public void testReleaseRemovedIssuer() {
+    ValidatorSettings previous =
+        settings("[{'external': '" + FIRST + "'}, {'external': '" + SECOND + "'}]");
+    ValidatorSettings next = settings("[{'external': '" + FIRST + "'}]");
+    assertThat(next.trustsSameAs(previous, SECOND), equalTo(false));
+    assertThat(next.trustsSameAs(previous, "http://unknown"), equalTo(true));
+  }
+
+  @Test
+  public void testIgnoreNotReloadableOptions() {
+    Map<String, String> options = new HashMap<>();
+    options.put("clockSkew", "30");
+    options.put("tokenCacheSize", "100");
+    assertThat(ValidatorSettings.reloadableOptions(options).keySet().size(), equalTo(1));
+  }
+}